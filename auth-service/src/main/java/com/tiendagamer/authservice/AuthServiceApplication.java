@@ -3,11 +3,13 @@ package com.tiendagamer.authservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.tiendagamer.authservice.repository")
+@EnableScheduling
 public class AuthServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,49 @@
+package com.tiendagamer.authservice.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.ForwardedHeaderFilter;
+
+import java.util.regex.Pattern;
+
+/**
+ * Client address for the login throttle and the audit log when running behind the gateway.
+ *
+ * With {@code server.forward-headers-strategy: framework} Boot would apply X-Forwarded-For from
+ * any caller, letting a client pick a fresh throttle bucket per request. This registration takes
+ * its place and only honours the headers on connections from {@code auth.forwarded.trusted-proxies};
+ * everyone else keeps their socket address.
+ */
+@Configuration
+public class ForwardedHeadersConfig {
+
+    @Bean
+    public FilterRegistrationBean<ForwardedHeaderFilter> forwardedHeaderFilter(
+            @Value("${auth.forwarded.trusted-proxies:127\\.0\\.0\\.1|0:0:0:0:0:0:0:1}") String trustedProxies) {
+        FilterRegistrationBean<ForwardedHeaderFilter> registration =
+                new FilterRegistrationBean<>(new TrustedProxyForwardedHeaderFilter(Pattern.compile(trustedProxies)));
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC, DispatcherType.ERROR);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    static class TrustedProxyForwardedHeaderFilter extends ForwardedHeaderFilter {
+
+        private final Pattern trustedProxies;
+
+        TrustedProxyForwardedHeaderFilter(Pattern trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            String peer = request.getRemoteAddr();
+            return peer == null || !trustedProxies.matcher(peer).matches() || super.shouldNotFilter(request);
+        }
+    }
+}
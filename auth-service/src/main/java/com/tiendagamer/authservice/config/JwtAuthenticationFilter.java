@@ -1,12 +1,18 @@
 package com.tiendagamer.authservice.config;
 
+import com.tiendagamer.authservice.model.Role;
+import com.tiendagamer.authservice.model.User;
 import com.tiendagamer.authservice.service.JwtService;
+import com.tiendagamer.jwtcore.TokenClaims;
+import com.tiendagamer.jwtcore.VerificationResult;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,6 +21,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -23,6 +31,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
 
+    /**
+     * Where the authenticated principal comes from: "claims" builds it from the
+     * verified token, "database" always loads it through the cached UserDetailsService
+     */
+    @Value("${auth.principal-source:claims}")
+    private String principalSource;
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -30,8 +45,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
         // Check if Authorization header is present and starts with "Bearer "
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -39,33 +52,63 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        try {
-            // Extract JWT token from header
-            jwt = authHeader.substring(7);
-            username = jwtService.extractUsername(jwt);
+        // Verify the token once; rejected tokens are counted by the verifier, not logged here
+        VerificationResult result = jwtService.verifyToken(authHeader.substring(7));
+        if (!result.isValid()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-            // If username exists and no authentication is set
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        try {
+            TokenClaims claims = result.claims();
+            String username = claims.subject();
 
-                // Validate token against username
-                if (jwtService.validateToken(jwt, username)) {
-                    UsernamePasswordAuthenticationToken authenticationToken = 
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities());
-                    
-                    authenticationToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            if (TokenClaims.SERVICE_ROLE.equals(claims.role())) {
+                // Another service, not a user: nothing to load, only the role matters
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        username, null, List.of(new SimpleGrantedAuthority("ROLE_" + TokenClaims.SERVICE_ROLE))));
+            } else if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // If username exists and no authentication is set
+                UserDetails userDetails = principalFromClaims(claims);
+                if (userDetails == null) {
+                    // Token without role/userId claims or fresh state required
+                    userDetails = userDetailsService.loadUserByUsername(username);
                 }
+
+                UsernamePasswordAuthenticationToken authenticationToken = 
+                        new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities());
+                
+                authenticationToken.setDetails(
+                        new WebAuthenticationDetailsSource().buildDetails(request));
+                
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: " + e.getMessage());
+            // e.g. the user was deleted after the token was issued
+            logger.debug("Cannot set user authentication: " + e.getMessage());
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Build the principal straight from the token, or null if it must be loaded
+     */
+    private UserDetails principalFromClaims(TokenClaims claims) {
+        if (!"claims".equalsIgnoreCase(principalSource) || claims.role() == null || claims.userId() == null) {
+            return null;
+        }
+        try {
+            return User.builder()
+                    .id(UUID.fromString(claims.userId()))
+                    .email(claims.subject())
+                    .role(Role.valueOf(claims.role()))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,87 @@
+package com.tiendagamer.authservice.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Measures hashing cost on the current host and picks the work factor whose
+ * single-hash latency is closest to the target without going over it.
+ */
+class PasswordCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Pa55word!";
+    private static final int SAMPLES = 3;
+    private static final int WARM_UP_ROUNDS = 200;
+
+    private final long targetNanos;
+
+    PasswordCostCalibrator(Duration targetLatency) {
+        this.targetNanos = targetLatency.toNanos();
+    }
+
+    /**
+     * BCrypt cost is exponential: walk up until one more step would exceed the target
+     */
+    int bcryptStrength(int minStrength) {
+        // Get the JIT past interpreted code on cheap rounds before timing anything
+        PasswordEncoder warmUp = new BCryptPasswordEncoder(4);
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            warmUp.encode(SAMPLE_PASSWORD);
+        }
+
+        int strength = minStrength;
+        for (int candidate = minStrength; candidate <= 31; candidate++) {
+            if (measure(cost -> new BCryptPasswordEncoder(cost), candidate) > targetNanos) {
+                break;
+            }
+            strength = candidate;
+        }
+        return strength;
+    }
+
+    /**
+     * PBKDF2 cost is linear in iterations: measure a probe and scale it
+     */
+    int pbkdf2Iterations(int minIterations) {
+        int probe = 10_000;
+        long nanos = measure(Pbkdf2IterationEncoder::forIterations, probe);
+        return (int) Math.max(minIterations, Math.min(Integer.MAX_VALUE, probe * targetNanos / Math.max(nanos, 1)));
+    }
+
+    /**
+     * Argon2 cost is linear in iterations for a fixed memory size
+     */
+    int argon2Iterations(int memoryKb, int minIterations) {
+        long nanos = measure(iterations -> Argon2Encoders.create(memoryKb, iterations), 1);
+        return (int) Math.max(minIterations, Math.min(64, targetNanos / Math.max(nanos, 1)));
+    }
+
+    private static long measure(IntFunction<PasswordEncoder> factory, int cost) {
+        PasswordEncoder encoder = factory.apply(cost);
+        encoder.encode(SAMPLE_PASSWORD); // warm-up
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    static final class Argon2Encoders {
+
+        private Argon2Encoders() {
+        }
+
+        static Argon2PasswordEncoder create(int memoryKb, int iterations) {
+            return new Argon2PasswordEncoder(16, 32, 1, memoryKb, iterations);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.tiendagamer.authservice.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password hashing setup. New hashes use {@code auth.password.algorithm}; the
+ * other algorithms stay registered so existing hashes keep verifying. With
+ * calibration on, the work factor is benchmarked at startup to hit
+ * {@code auth.password.target-latency} on this host; with it off, the costs
+ * are pinned by the {@code auth.password.*} properties. Stored hashes are only
+ * upgraded when their cost is below this host's, so instances calibrated on
+ * different hardware converge on the highest cost instead of rewriting each
+ * other's hashes.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    static final String BCRYPT = "bcrypt";
+    static final String PBKDF2 = "pbkdf2";
+    static final String ARGON2 = "argon2";
+
+    /**
+     * Ids a stored {@code {id}...} hash may carry; anything else can never verify
+     */
+    public static final Set<String> ENCODER_IDS = Set.of(BCRYPT, PBKDF2, ARGON2);
+
+    // Floors used when calibrating
+    private static final int BCRYPT_MIN_STRENGTH = 8;
+    private static final int PBKDF2_MIN_ITERATIONS = 100_000;
+    private static final int ARGON2_MIN_ITERATIONS = 1;
+
+    @Value("${auth.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${auth.password.calibrate:true}")
+    private boolean calibrate;
+
+    @Value("${auth.password.target-latency:100ms}")
+    private Duration targetLatency;
+
+    @Value("${auth.password.argon2-memory-kb:19456}")
+    private int argon2MemoryKb;
+
+    // Fixed costs when calibration is off
+    @Value("${auth.password.bcrypt-strength:10}")
+    private int bcryptDefaultStrength;
+
+    @Value("${auth.password.pbkdf2-iterations:310000}")
+    private int pbkdf2DefaultIterations;
+
+    @Value("${auth.password.argon2-iterations:2}")
+    private int argon2DefaultIterations;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        String idForEncode = algorithm.toLowerCase();
+        PasswordCostCalibrator calibrator = new PasswordCostCalibrator(targetLatency);
+
+        int bcryptStrength = calibrate && BCRYPT.equals(idForEncode)
+                ? calibrator.bcryptStrength(BCRYPT_MIN_STRENGTH)
+                : bcryptDefaultStrength;
+        int pbkdf2Iterations = calibrate && PBKDF2.equals(idForEncode)
+                ? calibrator.pbkdf2Iterations(PBKDF2_MIN_ITERATIONS)
+                : pbkdf2DefaultIterations;
+        int argon2Iterations = calibrate && ARGON2.equals(idForEncode)
+                ? calibrator.argon2Iterations(argon2MemoryKb, ARGON2_MIN_ITERATIONS)
+                : argon2DefaultIterations;
+
+        // BCrypt, PBKDF2 and Argon2 encoders all ask for a rehash only when the stored cost is lower
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, Pbkdf2IterationEncoder.forIterations(pbkdf2Iterations));
+        encoders.put(ARGON2, PasswordCostCalibrator.Argon2Encoders.create(argon2MemoryKb, argon2Iterations));
+
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalStateException("Unsupported auth.password.algorithm '" + algorithm
+                    + "'. Supported: " + encoders.keySet());
+        }
+
+        log.info("Password hashing: algorithm={} bcryptStrength={} pbkdf2Iterations={} argon2Iterations={} (calibrated={}, target={})",
+                idForEncode, bcryptStrength, pbkdf2Iterations, argon2Iterations, calibrate, targetLatency);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Hashes stored before the {id} prefix existed are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+}
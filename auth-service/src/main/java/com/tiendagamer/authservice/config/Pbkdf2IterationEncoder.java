@@ -0,0 +1,65 @@
+package com.tiendagamer.authservice.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
+
+/**
+ * PBKDF2 encoder that stores the iteration count next to the hash
+ * ({@code <iterations>$<hash>}). Spring's encoder does not record it, so without
+ * this a recalibrated iteration count would make existing hashes unverifiable.
+ */
+class Pbkdf2IterationEncoder implements PasswordEncoder {
+
+    private static final Map<Integer, Pbkdf2PasswordEncoder> ENCODERS = new ConcurrentHashMap<>();
+
+    private final int iterations;
+
+    private Pbkdf2IterationEncoder(int iterations) {
+        this.iterations = iterations;
+    }
+
+    static Pbkdf2IterationEncoder forIterations(int iterations) {
+        return new Pbkdf2IterationEncoder(iterations);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return iterations + "$" + delegate(iterations).encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        int separator = encodedPassword != null ? encodedPassword.indexOf('$') : -1;
+        if (separator <= 0) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(encodedPassword, 0, separator, 10);
+            return delegate(storedIterations).matches(rawPassword, encodedPassword.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int separator = encodedPassword != null ? encodedPassword.indexOf('$') : -1;
+        if (separator <= 0) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, 0, separator, 10) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static Pbkdf2PasswordEncoder delegate(int iterations) {
+        return ENCODERS.computeIfAbsent(iterations,
+                i -> new Pbkdf2PasswordEncoder("", 16, i, SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+    }
+}
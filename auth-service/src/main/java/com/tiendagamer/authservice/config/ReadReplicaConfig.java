@@ -0,0 +1,92 @@
+package com.tiendagamer.authservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing, active once {@code auth.datasource.replicas} lists at
+ * least one replica. Without it the auto-configured single DataSource is used.
+ */
+@Configuration
+@ConditionalOnProperty(name = "auth.datasource.replicas[0].url")
+public class ReadReplicaConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    @ConfigurationProperties("auth.datasource")
+    public ReplicaProperties replicaProperties() {
+        return new ReplicaProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("auth-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaProperties properties,
+                                 DataSourceProperties primaryProperties, MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(primaryProperties.determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() != null ? replica.getUsername() : primaryProperties.determineUsername())
+                    .password(replica.getPassword() != null ? replica.getPassword() : primaryProperties.determinePassword())
+                    .build();
+            dataSource.setPoolName("auth-replica-" + i);
+            dataSource.setReadOnly(true);
+            dataSource.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            replicas.add(dataSource);
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas);
+        Gauge.builder("auth.datasource.replicas.healthy", routingDataSource, ReplicaRoutingDataSource::healthyReplicas)
+                .description("Read replicas currently receiving reads")
+                .register(meterRegistry);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.datasource.health-check-interval:5s}")
+    public void checkReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.checkHealth(replicaProperties().getHealthCheckTimeoutSeconds());
+        }
+    }
+
+    @Data
+    public static class ReplicaProperties {
+        private List<Replica> replicas = new ArrayList<>();
+        private int healthCheckTimeoutSeconds = 1;
+
+        @Data
+        public static class Replica {
+            private String url;
+            private String username;
+            private String password;
+        }
+    }
+}
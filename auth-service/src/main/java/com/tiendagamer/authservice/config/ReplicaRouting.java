@@ -0,0 +1,36 @@
+package com.tiendagamer.authservice.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets a caller pin read-only work to the primary, e.g. to read a row it
+ * has just written before the replicas catch up.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    /**
+     * Run the work with every connection, read-only or not, taken from the primary
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    static boolean isPrimaryForced() {
+        return FORCE_PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.tiendagamer.authservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times the phases of each /auth request (user lookup, password hashing, token
+ * signing, ...) and counts request outcomes by status.
+ *
+ * Phase timers publish histograms, so p99 per phase can be read from
+ * /actuator/prometheus. Requests slower than {@code auth.metrics.slow-request-threshold}
+ * are logged with their phase breakdown.
+ */
+@Component
+public class RequestPhaseMetrics implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestPhaseMetrics.class);
+
+    private static final String TRACE_ATTRIBUTE = RequestPhaseMetrics.class.getName() + ".trace";
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+
+    public RequestPhaseMetrics(
+            MeterRegistry meterRegistry,
+            @Value("${auth.metrics.slow-request-threshold:0ms}") Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        // Zero disables the slow request log
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    /**
+     * Run one phase of the current request and record how long it took
+     */
+    public <T> T time(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(TRACE_ATTRIBUTE, new Trace(System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(TRACE_ATTRIBUTE) instanceof Trace trace)) {
+            return;
+        }
+        long elapsed = System.nanoTime() - trace.start;
+        String endpoint = endpoint(request);
+        String status = String.valueOf(response.getStatus());
+
+        Counter.builder("auth.request.outcomes")
+                .description("Auth requests by endpoint and response status")
+                .tag("endpoint", endpoint)
+                .tag("status", status)
+                .register(meterRegistry)
+                .increment();
+
+        if (slowThresholdNanos > 0 && elapsed >= slowThresholdNanos) {
+            StringBuilder phases = new StringBuilder();
+            trace.phases.forEach((name, nanos) -> phases.append(' ').append(name).append('=')
+                    .append(TimeUnit.NANOSECONDS.toMillis(nanos)).append("ms"));
+            log.warn("Slow request {} {} took {}ms (status {}):{}", request.getMethod(), endpoint,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), status, phases);
+        }
+    }
+
+    private void record(String phase, long nanos) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        Object trace = attributes.getAttribute(TRACE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+        Timer.builder("auth.request.phase")
+                .description("Time spent in each phase of an auth request")
+                .tag("endpoint", pattern != null ? pattern.toString() : "unknown")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (trace instanceof Trace t) {
+            t.phases.merge(phase, nanos, Long::sum);
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "unknown";
+    }
+
+    /**
+     * Phase breakdown of one request; only touched by the request thread
+     */
+    private static final class Trace {
+        private final long start;
+        private final Map<String, Long> phases = new LinkedHashMap<>();
+
+        private Trace(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.tiendagamer.authservice.config;
 
+import com.tiendagamer.jwtcore.TokenClaims;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,8 +9,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -27,12 +26,18 @@ public class SecurityConfig {
         http.csrf(csrf -> csrf.disable());
 
         http.authorizeHttpRequests(auth -> auth
+            .requestMatchers("/auth/admin/**").hasRole("ADMIN")
+            // Internal feed: only services holding a SERVICE token may list revoked ids
+            .requestMatchers("/auth/revocations").hasRole(TokenClaims.SERVICE_ROLE)
+            // Metric names, throttle and audit counters are for the scraper, not the public
+            .requestMatchers("/actuator/prometheus").hasRole(TokenClaims.SERVICE_ROLE)
             .requestMatchers(
                 "/auth/**",
                 "/v3/api-docs/**",
                 "/swagger-ui/**",
                 "/swagger-ui.html",
-                "/swagger-ui/index.html"
+                "/swagger-ui/index.html",
+                "/actuator/health"
             ).permitAll()
                 .anyRequest().authenticated()
         );
@@ -45,9 +50,4 @@ public class SecurityConfig {
 
         return http.build();
     }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
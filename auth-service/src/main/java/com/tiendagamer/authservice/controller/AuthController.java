@@ -1,21 +1,33 @@
 package com.tiendagamer.authservice.controller;
 
+import com.tiendagamer.authservice.config.RequestPhaseMetrics;
 import com.tiendagamer.authservice.dto.LoginRequest;
 import com.tiendagamer.authservice.dto.RegisterRequest;
 import com.tiendagamer.authservice.dto.AuthResponse;
+import com.tiendagamer.authservice.dto.BatchValidateRequest;
+import com.tiendagamer.authservice.dto.BatchValidateResponse;
 import com.tiendagamer.authservice.dto.ErrorResponse;
+import com.tiendagamer.authservice.model.AuditEventType;
 import com.tiendagamer.authservice.model.Role;
 import com.tiendagamer.authservice.model.User;
-import com.tiendagamer.authservice.repository.UserRepository;
+import com.tiendagamer.authservice.service.AuditLog;
+import com.tiendagamer.authservice.service.HashingCapacityExceededException;
 import com.tiendagamer.authservice.service.JwtService;
+import com.tiendagamer.authservice.service.LoginThrottle;
+import com.tiendagamer.authservice.service.PasswordHashingService;
+import com.tiendagamer.authservice.service.TokenBatchValidator;
+import com.tiendagamer.authservice.service.UserServiceImpl;
+import com.tiendagamer.jwtcore.VerificationResult;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -23,26 +35,27 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final UserRepository userRepository;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UserServiceImpl userService;
+
+    private final TokenBatchValidator tokenBatchValidator;
+    private final RequestPhaseMetrics phases;
+    private final LoginThrottle loginThrottle;
+    private final AuditLog auditLog;
+
+    @Value("${auth.hashing.retry-after:1}")
+    private long hashingRetryAfterSeconds;
+
+    @Value("${auth.validate.max-batch-size:1000}")
+    private int maxBatchSize;
 
     /**
      * Register a new user
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
         try {
-            // Check if user already exists
-            if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-                ErrorResponse error = ErrorResponse.builder()
-                        .error("User already registered with this email")
-                        .timestamp(System.currentTimeMillis())
-                        .status(HttpStatus.CONFLICT.value())
-                        .build();
-                return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
-            }
-
             // Determine role (default to END_USER if not provided)
             Role role = Role.END_USER;
             if (request.getRole() != null && !request.getRole().isEmpty()) {
@@ -58,17 +71,51 @@ public class AuthController {
                 }
             }
 
-            // Create new user
+            // Same per-IP budget as login, checked before any lookup or hashing
+            Duration wait = loginThrottle.tryAcquire(httpRequest.getRemoteAddr());
+            if (!wait.isZero()) {
+                ErrorResponse error = ErrorResponse.builder()
+                        .error("Too many registration attempts, retry later")
+                        .timestamp(System.currentTimeMillis())
+                        .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                        .build();
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (wait.toMillis() + 999) / 1000)))
+                        .body(error);
+            }
+
+            // Reject a known email before spending a hash on it
+            String email = User.normalizeEmail(request.getEmail());
+            if (phases.time("lookup", () -> userService.emailExists(email))) {
+                ErrorResponse error = ErrorResponse.builder()
+                        .error("User already registered with this email")
+                        .timestamp(System.currentTimeMillis())
+                        .status(HttpStatus.CONFLICT.value())
+                        .build();
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+            }
+
+            // Create new user; the unique email index turns a duplicate into a conflict
             User user = User.builder()
-                    .email(request.getEmail())
-                    .password(passwordEncoder.encode(request.getPassword()))
+                    .email(email)
+                    .password(phases.time("hash", () -> passwordHashingService.encode(request.getPassword())))
                     .role(role)
                     .build();
 
-            User savedUser = userRepository.save(user);
+            Optional<User> inserted = phases.time("insert", () -> userService.insertIfAbsent(user));
+            if (inserted.isEmpty()) {
+                ErrorResponse error = ErrorResponse.builder()
+                        .error("User already registered with this email")
+                        .timestamp(System.currentTimeMillis())
+                        .status(HttpStatus.CONFLICT.value())
+                        .build();
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+            }
+
+            User savedUser = inserted.get();
 
-            // Generate JWT token
-            String token = jwtService.generateToken(savedUser.getEmail());
+            // Generate JWT token; role/userId let filters skip the user lookup
+            String token = phases.time("token", () -> jwtService.generateToken(savedUser));
 
             AuthResponse response = AuthResponse.builder()
                     .message("User registered successfully")
@@ -78,7 +125,10 @@ public class AuthController {
                     .timestamp(System.currentTimeMillis())
                     .build();
 
+            auditLog.record(AuditEventType.REGISTER, savedUser.getEmail(), savedUser.getId(), httpRequest.getRemoteAddr());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (HashingCapacityExceededException e) {
+            return hashingBusy();
         } catch (Exception e) {
             ErrorResponse error = ErrorResponse.builder()
                     .error("Registration failed: " + e.getMessage())
@@ -93,10 +143,25 @@ public class AuthController {
      * Login user
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
+            String email = User.normalizeEmail(request.getEmail());
+
+            // Throttle per client and per account before any lookup or hashing
+            Duration wait = loginThrottle.tryAcquire(httpRequest.getRemoteAddr(), email);
+            if (!wait.isZero()) {
+                ErrorResponse error = ErrorResponse.builder()
+                        .error("Too many login attempts, retry later")
+                        .timestamp(System.currentTimeMillis())
+                        .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                        .build();
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (wait.toMillis() + 999) / 1000)))
+                        .body(error);
+            }
+
             // Find user by email
-            Optional<User> userOptional = userRepository.findByEmail(request.getEmail());
+            Optional<User> userOptional = phases.time("lookup", () -> userService.findByEmail(email));
 
             if (userOptional.isEmpty()) {
                 ErrorResponse error = ErrorResponse.builder()
@@ -104,27 +169,30 @@ public class AuthController {
                         .timestamp(System.currentTimeMillis())
                         .status(HttpStatus.UNAUTHORIZED.value())
                         .build();
+                auditLog.record(AuditEventType.LOGIN_FAILURE, email, null, httpRequest.getRemoteAddr());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
             }
 
             User user = userOptional.get();
 
             // Validate password
-            if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            if (!phases.time("hash", () -> passwordHashingService.matches(request.getPassword(), user.getPassword()))) {
                 ErrorResponse error = ErrorResponse.builder()
                         .error("Invalid email or password")
                         .timestamp(System.currentTimeMillis())
                         .status(HttpStatus.UNAUTHORIZED.value())
                         .build();
+                auditLog.record(AuditEventType.LOGIN_FAILURE, email, user.getId(), httpRequest.getRemoteAddr());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
             }
 
-            // Generate JWT token with custom claims
-            Map<String, Object> claims = new HashMap<>();
-            claims.put("role", user.getRole().name());
-            claims.put("userId", user.getId());
+            // Rehash asynchronously if the stored hash is on an old algorithm or cost
+            String storedHash = user.getPassword();
+            passwordHashingService.upgradeInBackground(request.getPassword(), storedHash,
+                    newHash -> userService.upgradePasswordHash(user, storedHash, newHash));
 
-            String token = jwtService.generateToken(user.getEmail(), claims);
+            // Generate JWT token with role/userId claims
+            String token = phases.time("token", () -> jwtService.generateToken(user));
 
             AuthResponse response = AuthResponse.builder()
                     .message("Login successful")
@@ -134,7 +202,10 @@ public class AuthController {
                     .timestamp(System.currentTimeMillis())
                     .build();
 
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, user.getEmail(), user.getId(), httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (HashingCapacityExceededException e) {
+            return hashingBusy();
         } catch (Exception e) {
             ErrorResponse error = ErrorResponse.builder()
                     .error("Login failed: " + e.getMessage())
@@ -161,36 +232,36 @@ public class AuthController {
             }
 
             String token = authHeader.substring(7);
-            String username = jwtService.extractUsername(token);
-
-            // Find user to verify still exists
-            Optional<User> userOptional = userRepository.findByEmail(username);
-            if (userOptional.isEmpty()) {
+            VerificationResult result = phases.time("verify", () -> jwtService.verifyToken(token));
+            if (!result.isValid()) {
                 ErrorResponse error = ErrorResponse.builder()
-                        .error("User not found")
+                        .error(result.message())
                         .timestamp(System.currentTimeMillis())
                         .status(HttpStatus.UNAUTHORIZED.value())
                         .build();
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
             }
+            String username = result.claims().subject();
 
-            User user = userOptional.get();
-            if (jwtService.validateToken(token, username)) {
-                AuthResponse response = AuthResponse.builder()
-                        .message("Token is valid")
-                        .email(username)
-                        .role(user.getRole().name())
-                        .timestamp(System.currentTimeMillis())
-                        .build();
-                return ResponseEntity.ok(response);
-            } else {
+            // Find user to verify still exists
+            Optional<User> userOptional = phases.time("lookup", () -> userService.findByEmail(username));
+            if (userOptional.isEmpty()) {
                 ErrorResponse error = ErrorResponse.builder()
-                        .error("Token is invalid or expired")
+                        .error("User not found")
                         .timestamp(System.currentTimeMillis())
                         .status(HttpStatus.UNAUTHORIZED.value())
                         .build();
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
             }
+
+            User user = userOptional.get();
+            AuthResponse response = AuthResponse.builder()
+                    .message("Token is valid")
+                    .email(username)
+                    .role(user.getRole().name())
+                    .timestamp(System.currentTimeMillis())
+                    .build();
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             ErrorResponse error = ErrorResponse.builder()
                     .error("Token validation failed: " + e.getMessage())
@@ -201,11 +272,43 @@ public class AuthController {
         }
     }
 
+    /**
+     * Validate many tokens in one call: one signature check per token and a
+     * single user query for all of them
+     */
+    @PostMapping("/validate/batch")
+    public ResponseEntity<?> validateTokens(@RequestBody BatchValidateRequest request) {
+        List<String> tokens = request.getTokens();
+        if (tokens == null || tokens.isEmpty() || tokens.size() > maxBatchSize) {
+            ErrorResponse error = ErrorResponse.builder()
+                    .error("Provide between 1 and " + maxBatchSize + " tokens")
+                    .timestamp(System.currentTimeMillis())
+                    .status(HttpStatus.BAD_REQUEST.value())
+                    .build();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        try {
+            BatchValidateResponse response = BatchValidateResponse.builder()
+                    .results(phases.time("verify", () -> tokenBatchValidator.validate(tokens)))
+                    .timestamp(System.currentTimeMillis())
+                    .build();
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ErrorResponse error = ErrorResponse.builder()
+                    .error("Token validation failed: " + e.getMessage())
+                    .timestamp(System.currentTimeMillis())
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                    .build();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     /**
      * Refresh token
      */
     @PostMapping("/refresh")
-    public ResponseEntity<?> refreshToken(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> refreshToken(@RequestHeader("Authorization") String authHeader,
+                                          HttpServletRequest httpRequest) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 ErrorResponse error = ErrorResponse.builder()
@@ -217,8 +320,17 @@ public class AuthController {
             }
 
             String token = authHeader.substring(7);
-            String username = jwtService.extractUsername(token);
-            Optional<User> userOptional = userRepository.findByEmail(username);
+            VerificationResult result = phases.time("verify", () -> jwtService.verifyToken(token));
+            if (!result.isValid()) {
+                ErrorResponse error = ErrorResponse.builder()
+                        .error(result.message())
+                        .timestamp(System.currentTimeMillis())
+                        .status(HttpStatus.UNAUTHORIZED.value())
+                        .build();
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+            }
+            String username = result.claims().subject();
+            Optional<User> userOptional = phases.time("lookup", () -> userService.findByEmail(username));
             if (userOptional.isEmpty()) {
                 ErrorResponse error = ErrorResponse.builder()
                         .error("User not found")
@@ -231,10 +343,7 @@ public class AuthController {
             User user = userOptional.get();
 
             // Generate new token
-            Map<String, Object> claims = new HashMap<>();
-            claims.put("role", user.getRole().name());
-            claims.put("userId", user.getId());
-            String newToken = jwtService.generateToken(username, claims);
+            String newToken = phases.time("token", () -> jwtService.generateToken(user));
 
             AuthResponse response = AuthResponse.builder()
                     .message("Token refreshed successfully")
@@ -243,6 +352,7 @@ public class AuthController {
                     .timestamp(System.currentTimeMillis())
                     .build();
 
+            auditLog.record(AuditEventType.REFRESH, username, user.getId(), httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             ErrorResponse error = ErrorResponse.builder()
@@ -255,10 +365,11 @@ public class AuthController {
     }
 
     /**
-     * Logout user (client-side token invalidation)
+     * Logout user: the token is revoked until it expires
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    HttpServletRequest httpRequest) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 ErrorResponse error = ErrorResponse.builder()
@@ -270,7 +381,16 @@ public class AuthController {
             }
 
             String token = authHeader.substring(7);
-            String username = jwtService.extractUsername(token);
+            VerificationResult result = phases.time("revoke", () -> jwtService.revokeToken(token));
+            if (!result.isValid()) {
+                ErrorResponse error = ErrorResponse.builder()
+                        .error(result.message())
+                        .timestamp(System.currentTimeMillis())
+                        .status(HttpStatus.UNAUTHORIZED.value())
+                        .build();
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+            }
+            String username = result.claims().subject();
 
             AuthResponse response = AuthResponse.builder()
                     .message("Logout successful")
@@ -278,6 +398,7 @@ public class AuthController {
                     .timestamp(System.currentTimeMillis())
                     .build();
 
+            auditLog.record(AuditEventType.LOGOUT, username, null, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             ErrorResponse error = ErrorResponse.builder()
@@ -288,4 +409,18 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    /**
+     * 503 for a request turned away by the hashing pool's admission control
+     */
+    private ResponseEntity<ErrorResponse> hashingBusy() {
+        ErrorResponse error = ErrorResponse.builder()
+                .error("Service busy, retry later")
+                .timestamp(System.currentTimeMillis())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(hashingRetryAfterSeconds))
+                .body(error);
+    }
 }
@@ -0,0 +1,29 @@
+package com.tiendagamer.authservice.controller;
+
+import com.tiendagamer.authservice.service.TokenRevocationService;
+import com.tiendagamer.jwtcore.RevocationDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/auth/revocations")
+@RequiredArgsConstructor
+public class RevocationController {
+
+    private final TokenRevocationService revocationService;
+
+    /**
+     * Revocations recorded after {@code since}, polled by the gateway and
+     * product-service with a SERVICE token. Pass back the epoch and
+     * lastSequence of the previous response.
+     */
+    @GetMapping
+    public RevocationDelta changesSince(
+            @RequestParam(defaultValue = "0") long epoch,
+            @RequestParam(defaultValue = "0") long since) {
+        return revocationService.changesSince(epoch, since);
+    }
+}
@@ -0,0 +1,60 @@
+package com.tiendagamer.authservice.controller;
+
+import com.tiendagamer.authservice.dto.ErrorResponse;
+import com.tiendagamer.authservice.dto.ImportReport;
+import com.tiendagamer.authservice.service.UserImportService;
+import com.tiendagamer.authservice.service.UserImportService.Format;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/auth/admin/users")
+@RequiredArgsConstructor
+public class UserImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final UserImportService userImportService;
+
+    /**
+     * Bulk import users from NDJSON ({"email","password","role"} per line)
+     * or CSV (email,password,role with an optional header row).
+     * The body is streamed; rows that conflict are reported, not fatal.
+     * Rows may carry a passwordHash ({bcrypt|pbkdf2|argon2}... or $2a$...)
+     * instead of a password.
+     */
+    @PostMapping(value = "/import", consumes = { NDJSON, "text/csv" })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) {
+        Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? Format.NDJSON
+                : Format.CSV;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            ImportReport report = userImportService.importUsers(reader, format);
+            // A failure partway through still returns what was committed and where to resume
+            return report.getFailure() == null
+                    ? ResponseEntity.ok(report)
+                    : ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(report);
+        } catch (Exception e) {
+            ErrorResponse error = ErrorResponse.builder()
+                    .error("Import failed: " + e.getMessage())
+                    .timestamp(System.currentTimeMillis())
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                    .build();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+}
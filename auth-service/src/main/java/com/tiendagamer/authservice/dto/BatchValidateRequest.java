@@ -0,0 +1,16 @@
+package com.tiendagamer.authservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchValidateRequest {
+    private List<String> tokens;
+}
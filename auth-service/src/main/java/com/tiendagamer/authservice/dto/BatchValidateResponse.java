@@ -0,0 +1,17 @@
+package com.tiendagamer.authservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchValidateResponse {
+    private List<TokenValidationResult> results;
+    private Long timestamp;
+}
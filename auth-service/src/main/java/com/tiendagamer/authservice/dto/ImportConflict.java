@@ -0,0 +1,16 @@
+package com.tiendagamer.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportConflict {
+    private long line;
+    private String email;
+    private String reason;
+}
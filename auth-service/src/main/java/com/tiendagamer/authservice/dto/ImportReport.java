@@ -0,0 +1,24 @@
+package com.tiendagamer.authservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+    private long imported;
+    private long rejected;
+    // Capped at auth.import.max-reported-conflicts; rejected holds the full count
+    private List<ImportConflict> conflicts;
+    private long durationMillis;
+    // Set when the import stopped early; imported still counts every committed row
+    private String failure;
+    // First line of the chunk that failed; re-send from here, rows already imported come back as conflicts
+    private Long failedAtLine;
+}
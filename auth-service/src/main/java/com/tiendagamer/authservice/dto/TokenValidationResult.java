@@ -0,0 +1,19 @@
+package com.tiendagamer.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenValidationResult {
+    // Position of the token in the request
+    private int index;
+    private boolean valid;
+    private String email;
+    private String role;
+    private String error;
+}
@@ -0,0 +1,9 @@
+package com.tiendagamer.authservice.model;
+
+public enum AuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    REGISTER,
+    REFRESH,
+    LOGOUT
+}
@@ -0,0 +1,44 @@
+package com.tiendagamer.authservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Append-only audit row. Mapped so the schema is managed with the rest of the
+ * model; rows are written in JDBC batches by AuditLog, never through JPA.
+ */
+@Data
+@Builder
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "auth_audit_log", indexes = {
+    @Index(name = "idx_auth_audit_log_email", columnList = "email"),
+    @Index(name = "idx_auth_audit_log_occurred_at", columnList = "occurred_at")
+})
+public class AuditLogEntry {
+    @Id
+    private UUID id;
+    @Column(name = "event_type", nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private AuditEventType eventType;
+    @Column(name = "email")
+    private String email;
+    @Column(name = "user_id")
+    private UUID userId;
+    @Column(name = "client_ip", length = 64)
+    private String clientIp;
+    @Column(name = "occurred_at", nullable = false)
+    private long occurredAt;
+}
@@ -0,0 +1,46 @@
+package com.tiendagamer.authservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A revoked token id, shared by every auth-service instance. The sequence is
+ * the cursor of the revocation feed, so it comes from the database one value
+ * at a time: a per-instance block of ids would hand out numbers below a
+ * cursor that pollers have already passed.
+ */
+@Data
+@Builder
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "token_revocations", indexes = {
+    @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at")
+})
+public class TokenRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_revocations_seq")
+    @SequenceGenerator(name = "token_revocations_seq", sequenceName = "token_revocations_seq", allocationSize = 1)
+    @Column(name = "seq")
+    private Long sequence;
+
+    @Column(name = "token_id", length = 64, nullable = false, unique = true)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    // When the row was written; the feed only moves its cursor past settled rows
+    @Column(name = "revoked_at", nullable = false)
+    private long revokedAt;
+}
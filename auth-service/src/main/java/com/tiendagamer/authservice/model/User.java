@@ -2,6 +2,7 @@ package com.tiendagamer.authservice.model;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 import org.hibernate.annotations.UuidGenerator;
@@ -13,7 +14,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -28,16 +32,38 @@ import lombok.Setter;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+    // Unique index on the normalized email: one round trip lookups and conflict detection on insert
+    @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+})
 public class User implements UserDetails{
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @UuidGenerator(style = UuidGenerator.Style.AUTO)
     private UUID id;
+    @Column(name = "email", nullable = false)
     private String email;
     private String password;
     @Column(name = "role", nullable = false)
     @Enumerated(EnumType.STRING)
     private Role role;
+    // Epoch millis, written by the audit log flush rather than on the login path
+    @Column(name = "last_login_at")
+    private Long lastLoginAt;
+
+    /**
+     * Emails are stored trimmed and lower-cased so the unique index is case-insensitive
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        email = normalizeEmail(email);
+    }
 
     @Override
     public String getUsername() {
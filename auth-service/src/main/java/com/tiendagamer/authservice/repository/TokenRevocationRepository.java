@@ -0,0 +1,22 @@
+package com.tiendagamer.authservice.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tiendagamer.authservice.model.TokenRevocation;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    // Not read-only: the feed must not be served from a replica that lags behind its cursor
+    List<TokenRevocation> findBySequenceGreaterThanAndExpiresAtGreaterThanOrderBySequence(long since, long now, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("delete from TokenRevocation t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") long now);
+}
@@ -1,13 +1,43 @@
 package com.tiendagamer.authservice.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.tiendagamer.authservice.model.User;
 
 public interface UserRepository extends JpaRepository<User,UUID> {
+    // Read-only lookups are served by a read replica when one is configured
+    @Transactional(readOnly = true)
     Optional<User> findByEmail(String email);
     Optional<User> findById(UUID id);
+
+    // Cheap duplicate check on the unique email index before a registration pays for a hash
+    @Transactional(readOnly = true)
+    boolean existsByEmail(String email);
+
+    @Transactional(readOnly = true)
+    List<User> findByEmailIn(Collection<String> emails);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Swap the stored hash only if it is still the one we verified against,
+     * so a concurrent password change is never overwritten
+     */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("id") UUID id,
+                                  @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
 }
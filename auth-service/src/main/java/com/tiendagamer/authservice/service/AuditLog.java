@@ -0,0 +1,219 @@
+package com.tiendagamer.authservice.service;
+
+import com.tiendagamer.authservice.model.AuditEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail of authentication events.
+ *
+ * Request threads publish into a bounded lock-free ring buffer and return
+ * immediately; when it is full the event is dropped and counted rather than
+ * slowing the request down. A single consumer thread drains the buffer and
+ * writes every {@code batch-size} events or {@code flush-interval}, whichever
+ * comes first, as one JDBC batch. Successful logins also update
+ * {@code users.last_login_at} in the same transaction, one row per user.
+ */
+@Service
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final String INSERT_EVENT =
+            "insert into auth_audit_log (id, event_type, email, user_id, client_ip, occurred_at) values (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_LAST_LOGIN =
+            "update users set last_login_at = ? where id = ? and (last_login_at is null or last_login_at < ?)";
+
+    public record Event(AuditEventType type, String email, UUID userId, String clientIp, long occurredAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RingBuffer buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread consumer;
+
+    public AuditLog(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.audit.buffer-size:8192}") int bufferSize,
+            @Value("${auth.audit.batch-size:500}") int batchSize,
+            @Value("${auth.audit.flush-interval:200ms}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.buffer = new RingBuffer(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+
+        Gauge.builder("auth.audit.pending", buffer, RingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("auth.audit.dropped")
+                .description("Audit events dropped because the buffer was full")
+                .register(meterRegistry);
+        this.written = Counter.builder("auth.audit.written")
+                .description("Audit events written to the database")
+                .register(meterRegistry);
+        this.failed = Counter.builder("auth.audit.failed")
+                .description("Audit events lost because their batch failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an event without blocking; dropped and counted if the buffer is full
+     */
+    public void record(AuditEventType type, String email, UUID userId, String clientIp) {
+        if (!buffer.offer(new Event(type, email, userId, clientIp, System.currentTimeMillis()))) {
+            dropped.increment();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        consumer = new Thread(this::drainLoop, "auth-audit");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drainLoop() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (running || buffer.size() > 0) {
+            Event event = buffer.poll();
+            if (event != null) {
+                batch.add(event);
+                if (batch.size() < batchSize) {
+                    continue;
+                }
+            } else if (running && System.nanoTime() < deadline) {
+                // Producers never wake the consumer, so an idle buffer costs nothing on the request path
+                LockSupport.parkNanos(Math.min(deadline - System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(10)));
+                continue;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+            deadline = System.nanoTime() + flushIntervalNanos;
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<Event> batch) {
+        // Only the latest login per user is written
+        Map<UUID, Long> lastLogins = new HashMap<>();
+        for (Event event : batch) {
+            if (event.type() == AuditEventType.LOGIN_SUCCESS && event.userId() != null) {
+                lastLogins.merge(event.userId(), event.occurredAt(), Math::max);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_EVENT, batch, batch.size(), (ps, event) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setString(2, event.type().name());
+                    ps.setString(3, event.email());
+                    ps.setObject(4, event.userId());
+                    ps.setString(5, event.clientIp());
+                    ps.setLong(6, event.occurredAt());
+                });
+                if (!lastLogins.isEmpty()) {
+                    List<Map.Entry<UUID, Long>> logins = new ArrayList<>(lastLogins.entrySet());
+                    jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, logins, logins.size(), (ps, login) -> {
+                        ps.setLong(1, login.getValue());
+                        ps.setObject(2, login.getKey());
+                        ps.setLong(3, login.getValue());
+                    });
+                }
+            });
+            written.increment(batch.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.warn("Could not write {} audit events: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Bounded multi-producer, single-consumer ring. Producers claim a sequence
+     * with one CAS and then publish into the slot; the consumer treats a still
+     * empty slot as "not published yet" and retries on its next pass.
+     */
+    static final class RingBuffer {
+        private final AtomicReferenceArray<Event> slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+
+        RingBuffer(int capacity) {
+            int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+            this.slots = new AtomicReferenceArray<>(size);
+            this.mask = size - 1;
+        }
+
+        boolean offer(Event event) {
+            while (true) {
+                long claimed = tail.get();
+                if (claimed - head >= slots.length()) {
+                    return false;
+                }
+                if (tail.compareAndSet(claimed, claimed + 1)) {
+                    slots.lazySet((int) claimed & mask, event);
+                    return true;
+                }
+            }
+        }
+
+        Event poll() {
+            long current = head;
+            int index = (int) current & mask;
+            Event event = slots.get(index);
+            if (event == null) {
+                return null;
+            }
+            slots.lazySet(index, null);
+            head = current + 1;
+            return event;
+        }
+
+        int size() {
+            return (int) (tail.get() - head);
+        }
+    }
+}
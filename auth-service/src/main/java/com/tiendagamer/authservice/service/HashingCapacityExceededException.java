@@ -0,0 +1,12 @@
+package com.tiendagamer.authservice.service;
+
+/**
+ * Thrown when the password hashing executor cannot accept more work.
+ * Mapped to 503 with Retry-After so callers back off instead of queueing.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,27 +1,49 @@
 package com.tiendagamer.authservice.service;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.tiendagamer.authservice.model.User;
+import com.tiendagamer.jwtcore.JwtSigner;
+import com.tiendagamer.jwtcore.JwtVerifier;
+import com.tiendagamer.jwtcore.TokenClaims;
+import com.tiendagamer.jwtcore.TokenFormat;
+import com.tiendagamer.jwtcore.VerificationResult;
+import com.tiendagamer.jwtcore.VerificationStats;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret:mySecretKeyForJwtTokenGenerationAndValidationPurposeOnly}")
-    private String jwtSecret;
+    private final JwtSigner signer;
+    private final JwtVerifier verifier;
+    private final TokenRevocationService revocationService;
 
-    @Value("${jwt.expiration:86400000}")
-    private long jwtExpiration; // default 24 hours
+    public JwtService(
+            TokenRevocationService revocationService,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.secret:mySecretKeyForJwtTokenGenerationAndValidationPurposeOnly}") String jwtSecret,
+            @Value("${jwt.expiration:86400000}") long jwtExpiration, // default 24 hours
+            @Value("${jwt.format:standard}") TokenFormat format,
+            @Value("${jwt.verification.log-interval:60s}") Duration logInterval) {
+        this.signer = new JwtSigner(jwtSecret, jwtExpiration, format);
+        this.verifier = new JwtVerifier(jwtSecret, new VerificationStats(logInterval.toMillis()));
+        this.revocationService = revocationService;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        VerificationStats stats = verifier.getStats();
+        for (VerificationResult.Status status : VerificationResult.Status.values()) {
+            FunctionCounter.builder("auth.jwt.verifications", stats, s -> s.count(status))
+                    .description("Token verifications by outcome")
+                    .tag("result", status.name().toLowerCase())
+                    .register(meterRegistry);
+        }
     }
 
     /**
@@ -31,83 +53,92 @@ public class JwtService {
         return generateToken(username, new HashMap<>());
     }
 
+    /**
+     * Generate a user token with role and user id claims in the configured
+     * {@code jwt.format}, so filters can build the principal without a lookup
+     */
+    public String generateToken(User user) {
+        return signer.sign(user.getEmail(), user.getRole().name(), user.getId());
+    }
+
     /**
      * Generate JWT token with subject and custom claims
      */
     public String generateToken(String username, Map<String, Object> claims) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpiration);
-        
-        return Jwts.builder()
-                .claims(claims)
-                .subject(username)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
+        return signer.sign(username, claims);
     }
-    
+
     /**
-     * Extract username from token
+     * Verify signature, expiration and revocation once, without throwing
      */
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public VerificationResult verifyToken(String token) {
+        VerificationResult result = verifier.check(token);
+        if (result.isValid() && revocationService.isRevoked(result.claims())) {
+            return VerificationResult.revoked(result.claims());
+        }
+        return result;
     }
 
     /**
-     * Extract expiration date from token
+     * Same as {@link #verifyToken(String)} but throws for callers that want the claims only
+     *
+     * @throws JwtException if the token is not valid
      */
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public TokenClaims parseToken(String token) {
+        VerificationResult result = verifyToken(token);
+        if (!result.isValid()) {
+            throw new JwtException(result.message());
+        }
+        return result.claims();
     }
 
     /**
-     * Extract a specific claim from token
+     * Same as {@link #verifyToken(String)} but empty unless the token is valid
      */
-    public <T> T extractClaim(String token, java.util.function.Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public Optional<TokenClaims> tryParseToken(String token) {
+        VerificationResult result = verifyToken(token);
+        return result.isValid() ? Optional.of(result.claims()) : Optional.empty();
     }
 
     /**
-     * Extract all claims from token
+     * Revoke a still valid token until it expires. Revoking twice is harmless,
+     * so the revocation list is not consulted.
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public VerificationResult revokeToken(String token) {
+        VerificationResult result = verifier.check(token);
+        if (result.isValid()) {
+            revocationService.revoke(result.claims());
+        }
+        return result;
     }
 
     /**
-     * Check if token is expired
+     * Extract username from token
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String extractUsername(String token) {
+        return parseToken(token).subject();
+    }
+
+    /**
+     * Extract expiration date from token
+     */
+    public Date extractExpiration(String token) {
+        return new Date(parseToken(token).expiresAt());
     }
 
     /**
      * Validate token for a specific username
      */
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = extractUsername(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        return tryParseToken(token)
+                .map(claims -> claims.subject().equals(username))
+                .orElse(false);
     }
 
     /**
-     * Validate token (just expiration check)
+     * Validate token (signature and expiration)
      */
     public Boolean isTokenValid(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return tryParseToken(token).isPresent();
     }
 }
-
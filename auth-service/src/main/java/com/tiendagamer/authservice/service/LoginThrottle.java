@@ -0,0 +1,105 @@
+package com.tiendagamer.authservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limits login attempts per client IP and per email before any user
+ * lookup or password hash runs, so credential stuffing cannot burn the
+ * hashing pool. Registrations draw from the same per-IP bucket.
+ *
+ * Each key has a lock-free token bucket kept as a single theoretical arrival
+ * time (GCRA). Idle keys expire after {@code auth.login-throttle.idle-expiry},
+ * which bounds memory together with {@code max-keys}.
+ */
+@Service
+public class LoginThrottle {
+
+    private final Limiter byIp;
+    private final Limiter byEmail;
+
+    public LoginThrottle(
+            MeterRegistry meterRegistry,
+            @Value("${auth.login-throttle.ip.capacity:50}") int ipCapacity,
+            @Value("${auth.login-throttle.ip.refill:1s}") Duration ipRefill,
+            @Value("${auth.login-throttle.email.capacity:5}") int emailCapacity,
+            @Value("${auth.login-throttle.email.refill:30s}") Duration emailRefill,
+            @Value("${auth.login-throttle.max-keys:100000}") long maxKeys,
+            @Value("${auth.login-throttle.idle-expiry:15m}") Duration idleExpiry) {
+        this.byIp = new Limiter(ipCapacity, ipRefill, maxKeys, idleExpiry, rejectedCounter(meterRegistry, "ip"));
+        this.byEmail = new Limiter(emailCapacity, emailRefill, maxKeys, idleExpiry, rejectedCounter(meterRegistry, "email"));
+    }
+
+    /**
+     * Take one attempt from both the IP and the email bucket
+     *
+     * @return zero if the attempt may proceed, otherwise how long to wait
+     */
+    public Duration tryAcquire(String ip, String email) {
+        long now = System.nanoTime();
+        long wait = byIp.tryAcquire(ip, now);
+        if (wait == 0) {
+            wait = byEmail.tryAcquire(email, now);
+        }
+        return Duration.ofNanos(wait);
+    }
+
+    /**
+     * Take one attempt from the IP bucket only, for registrations
+     *
+     * @return zero if the attempt may proceed, otherwise how long to wait
+     */
+    public Duration tryAcquire(String ip) {
+        return Duration.ofNanos(byIp.tryAcquire(ip, System.nanoTime()));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before the password check")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    private static final class Limiter {
+        private final long interval;
+        private final long tolerance;
+        private final Cache<String, AtomicLong> buckets;
+        private final Counter rejected;
+
+        private Limiter(int capacity, Duration refill, long maxKeys, Duration idleExpiry, Counter rejected) {
+            // One token comes back every interval; up to capacity may be spent at once
+            this.interval = refill.toNanos();
+            this.tolerance = interval * (Math.max(capacity, 1) - 1L);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(idleExpiry)
+                    .build();
+            this.rejected = rejected;
+        }
+
+        private long tryAcquire(String key, long now) {
+            if (key == null) {
+                return 0;
+            }
+            AtomicLong arrival = buckets.get(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = arrival.get();
+                long earliest = current - tolerance;
+                if (now < earliest) {
+                    rejected.increment();
+                    return earliest - now;
+                }
+                if (arrival.compareAndSet(current, Math.max(current, now) + interval)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
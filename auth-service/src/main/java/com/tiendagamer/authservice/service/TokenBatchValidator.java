@@ -0,0 +1,83 @@
+package com.tiendagamer.authservice.service;
+
+import com.tiendagamer.authservice.dto.TokenValidationResult;
+import com.tiendagamer.authservice.model.User;
+import com.tiendagamer.jwtcore.VerificationResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Validates many tokens with one user query: signatures are verified in
+ * parallel, then every distinct subject is resolved with a single IN lookup.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenBatchValidator {
+
+    // Below this, splitting the work across threads costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private final JwtService jwtService;
+    private final UserServiceImpl userService;
+
+    public List<TokenValidationResult> validate(List<String> tokens) {
+        IntStream indexes = IntStream.range(0, tokens.size());
+        if (tokens.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        // Index-aligned with the request
+        VerificationResult[] verified = new VerificationResult[tokens.size()];
+        indexes.forEach(i -> verified[i] = jwtService.verifyToken(tokens.get(i)));
+
+        Set<String> subjects = new HashSet<>();
+        for (VerificationResult v : verified) {
+            if (v.isValid() && v.claims().subject() != null) {
+                subjects.add(v.claims().subject());
+            }
+        }
+        Map<String, User> users = subjects.isEmpty()
+                ? Map.of()
+                : userService.findByEmailIn(subjects).stream()
+                        .collect(Collectors.toMap(User::getEmail, Function.identity()));
+
+        List<TokenValidationResult> results = new ArrayList<>(tokens.size());
+        for (int i = 0; i < verified.length; i++) {
+            results.add(toResult(i, verified[i], users));
+        }
+        return results;
+    }
+
+    private static TokenValidationResult toResult(int index, VerificationResult verified, Map<String, User> users) {
+        if (!verified.isValid()) {
+            return TokenValidationResult.builder()
+                    .index(index)
+                    .valid(false)
+                    .error(verified.message())
+                    .build();
+        }
+        User user = users.get(verified.claims().subject());
+        if (user == null) {
+            return TokenValidationResult.builder()
+                    .index(index)
+                    .valid(false)
+                    .email(verified.claims().subject())
+                    .error("User not found")
+                    .build();
+        }
+        return TokenValidationResult.builder()
+                .index(index)
+                .valid(true)
+                .email(user.getEmail())
+                .role(user.getRole().name())
+                .build();
+    }
+}
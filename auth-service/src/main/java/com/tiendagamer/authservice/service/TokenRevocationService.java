@@ -0,0 +1,135 @@
+package com.tiendagamer.authservice.service;
+
+import com.tiendagamer.authservice.model.TokenRevocation;
+import com.tiendagamer.authservice.repository.TokenRevocationRepository;
+import com.tiendagamer.jwtcore.RevocationDelta;
+import com.tiendagamer.jwtcore.RevocationList;
+import com.tiendagamer.jwtcore.RevocationSync;
+import com.tiendagamer.jwtcore.RevokedToken;
+import com.tiendagamer.jwtcore.TokenClaims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Source of truth for revoked tokens. Every revocation is a row in the shared
+ * token_revocations table, numbered by a database sequence. That table is the
+ * feed the gateway and product-service pull as deltas, and every auth-service
+ * instance follows it the same way, so a logout on one instance is seen by
+ * all of them within {@code jwt.revocation.sync-interval}. Checks hit the
+ * in-memory {@link RevocationList}.
+ */
+@Service
+public class TokenRevocationService {
+
+    // The database sequence never restarts, so pollers only reset on their first call
+    static final long EPOCH = 1;
+
+    private final TokenRevocationRepository repository;
+    private final RevocationSync sync;
+    private final int maxDeltaSize;
+    private final long settleMillis;
+
+    public TokenRevocationService(
+            TokenRevocationRepository repository,
+            @Value("${jwt.expiration:86400000}") long jwtExpiration,
+            @Value("${jwt.revocation.bucket:1h}") Duration bucket,
+            @Value("${jwt.revocation.bloom-bits:65536}") int bloomBits,
+            @Value("${jwt.revocation.max-delta-size:10000}") int maxDeltaSize,
+            @Value("${jwt.revocation.settle-time:10s}") Duration settleTime) {
+        this.repository = repository;
+        this.sync = new RevocationSync(new RevocationList(jwtExpiration, bucket.toMillis(), bloomBits));
+        this.maxDeltaSize = maxDeltaSize;
+        this.settleMillis = settleTime.toMillis();
+    }
+
+    @PostConstruct
+    void load() {
+        syncFromDatabase();
+    }
+
+    /**
+     * Pull revocations recorded by any instance into the local list
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:5s}")
+    public void syncFromDatabase() {
+        RevocationDelta delta;
+        long since;
+        do {
+            since = sync.since();
+            delta = changesSince(sync.epoch(), since);
+            sync.apply(delta);
+        } while (delta.entries().size() >= maxDeltaSize && delta.lastSequence() > since);
+    }
+
+    /**
+     * Revoke a token until it expires. Tokens issued without a jti cannot be
+     * revoked and simply run out.
+     */
+    public void revoke(TokenClaims claims) {
+        long now = System.currentTimeMillis();
+        if (claims.tokenId() == null || claims.isExpired(now) || isRevoked(claims)) {
+            return;
+        }
+        try {
+            repository.saveAndFlush(TokenRevocation.builder()
+                    .tokenId(claims.tokenId())
+                    .expiresAt(claims.expiresAt())
+                    .revokedAt(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Already revoked, possibly on another instance that we have not synced yet
+        }
+        // Effective here at once; other instances see it on their next sync
+        sync.revocations().revoke(claims.tokenId(), claims.expiresAt());
+    }
+
+    public boolean isRevoked(TokenClaims claims) {
+        return sync.revocations().isRevoked(claims.tokenId(), claims.expiresAt());
+    }
+
+    /**
+     * Revocations after {@code since}. A caller on another epoch gets everything again.
+     *
+     * Sequence values are taken before commit, so a lower one can become
+     * visible after a higher one. The cursor therefore only moves over rows
+     * older than {@code jwt.revocation.settle-time}; newer rows are sent again
+     * on the next poll, which is harmless.
+     */
+    public RevocationDelta changesSince(long callerEpoch, long since) {
+        boolean reset = callerEpoch != EPOCH;
+        long from = reset ? 0 : since;
+        long now = System.currentTimeMillis();
+        long settled = now - settleMillis;
+
+        List<TokenRevocation> rows = repository.findBySequenceGreaterThanAndExpiresAtGreaterThanOrderBySequence(
+                from, now, Limit.of(maxDeltaSize));
+        List<RevokedToken> entries = new ArrayList<>(rows.size());
+        long last = from;
+        boolean advancing = true;
+        for (TokenRevocation row : rows) {
+            entries.add(new RevokedToken(row.getTokenId(), row.getExpiresAt()));
+            advancing &= row.getRevokedAt() <= settled;
+            if (advancing) {
+                last = row.getSequence();
+            }
+        }
+        return new RevocationDelta(EPOCH, last, reset, entries);
+    }
+
+    /**
+     * Drop expired buckets and rows
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:60s}")
+    public void purgeExpired() {
+        sync.revocations().purgeExpired();
+        repository.deleteExpired(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,355 @@
+package com.tiendagamer.authservice.service;
+
+import com.tiendagamer.authservice.config.PasswordEncoderConfig;
+import com.tiendagamer.authservice.dto.ImportConflict;
+import com.tiendagamer.authservice.dto.ImportReport;
+import com.tiendagamer.authservice.model.Role;
+import com.tiendagamer.authservice.model.User;
+import com.tiendagamer.authservice.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams a user file in chunks: parse, drop duplicates and existing emails
+ * with one query per chunk, hash passwords in parallel, then persist the chunk
+ * in one transaction so Hibernate sends it as JDBC batches.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    public enum Format { NDJSON, CSV }
+
+    /**
+     * One input row. {@code passwordHash} lets legacy shops hand over existing
+     * BCrypt ({@code $2a$...}) or {@code {id}}-prefixed hashes for a registered
+     * encoder instead of raw passwords; those skip hashing and are upgraded on
+     * first login.
+     */
+    record ImportRow(String email, String password, String passwordHash, String role) {
+    }
+
+    private record ParsedRow(long line, String email, String password, String passwordHash, Role role) {
+    }
+
+    private final UserRepository userRepository;
+    private final UserServiceImpl userService;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService hashingPool;
+    private final int batchSize;
+    private final int maxReportedConflicts;
+
+    public UserImportService(
+            UserRepository userRepository,
+            UserServiceImpl userService,
+            PasswordEncoder passwordEncoder,
+            ObjectMapper objectMapper,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            @Value("${auth.import.batch-size:1000}") int batchSize,
+            @Value("${auth.import.max-reported-conflicts:10000}") int maxReportedConflicts) {
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxReportedConflicts = maxReportedConflicts;
+        // Separate from the login hashing pool: an import must not reject interactive logins
+        this.hashingPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Import every row of {@code reader}. Never throws for a failure partway
+     * through: the report then carries {@code failure} and the line to resume from.
+     */
+    public ImportReport importUsers(BufferedReader reader, Format format) {
+        long start = System.currentTimeMillis();
+        Progress progress = new Progress();
+
+        Map<String, Integer> csvColumns = null;
+        List<ParsedRow> chunk = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String failure = null;
+        Long failedAtLine = null;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && csvColumns == null) {
+                    csvColumns = csvHeader(line);
+                    if (csvColumns != null) {
+                        continue;
+                    }
+                    csvColumns = Map.of("email", 0, "password", 1, "role", 2);
+                }
+
+                ImportRow row;
+                try {
+                    row = format == Format.NDJSON
+                            ? objectMapper.readValue(line, ImportRow.class)
+                            : csvRow(line, csvColumns);
+                } catch (JacksonException e) {
+                    progress.reject(lineNumber, null, "Malformed row");
+                    continue;
+                }
+
+                ParsedRow parsed = validate(lineNumber, row, progress);
+                if (parsed != null) {
+                    chunk.add(parsed);
+                }
+                if (chunk.size() >= batchSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, progress);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Earlier chunks are committed; report them instead of discarding the progress
+            failedAtLine = chunk.isEmpty() ? lineNumber + 1 : chunk.getFirst().line();
+            failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.warn("User import stopped at line {} after {} imported", failedAtLine, progress.imported, e);
+        }
+
+        return ImportReport.builder()
+                .imported(progress.imported)
+                .rejected(progress.rejected)
+                .conflicts(progress.conflicts)
+                .durationMillis(System.currentTimeMillis() - start)
+                .failure(failure)
+                .failedAtLine(failedAtLine)
+                .build();
+    }
+
+    private void importChunk(List<ParsedRow> chunk, Progress progress) {
+        // Duplicates inside the file: first occurrence wins
+        Map<String, ParsedRow> unique = new LinkedHashMap<>();
+        for (ParsedRow row : chunk) {
+            if (unique.putIfAbsent(row.email(), row) != null) {
+                progress.reject(row.line(), row.email(), "Duplicate email in import");
+            }
+        }
+
+        // Already registered: one IN query per chunk
+        Set<String> existing = userRepository.findExistingEmails(unique.keySet());
+        for (String email : existing) {
+            ParsedRow row = unique.remove(email);
+            progress.reject(row.line(), email, "User already registered with this email");
+        }
+        if (unique.isEmpty()) {
+            return;
+        }
+
+        List<ParsedRow> rows = new ArrayList<>(unique.values());
+        List<User> users = hashAll(rows);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (User user : users) {
+                    entityManager.persist(user);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            progress.imported += users.size();
+        } catch (RuntimeException e) {
+            if (!UserServiceImpl.isEmailConflict(e)) {
+                throw e;
+            }
+            // Raced with a registration between the check and the insert: retry row by row
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                user.setId(null);
+                if (userService.insertIfAbsent(user).isPresent()) {
+                    progress.imported++;
+                } else {
+                    progress.reject(rows.get(i).line(), user.getEmail(), "User already registered with this email");
+                }
+            }
+        }
+    }
+
+    private List<User> hashAll(List<ParsedRow> rows) {
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            hashes.add(row.passwordHash() != null
+                    ? CompletableFuture.completedFuture(row.passwordHash())
+                    : hashingPool.submit(() -> passwordEncoder.encode(row.password())));
+        }
+
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ParsedRow row = rows.get(i);
+            users.add(User.builder()
+                    .email(row.email())
+                    .password(await(hashes.get(i)))
+                    .role(row.role())
+                    .build());
+        }
+        return users;
+    }
+
+    private static String await(Future<String> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private ParsedRow validate(long line, ImportRow row, Progress progress) {
+        String email = User.normalizeEmail(row.email());
+        if (email == null || email.isEmpty() || email.indexOf('@') < 1) {
+            progress.reject(line, row.email(), "Invalid email");
+            return null;
+        }
+
+        String passwordHash = row.passwordHash();
+        if (passwordHash != null && !passwordHash.isEmpty()) {
+            if (!isVerifiableHash(passwordHash)) {
+                progress.reject(line, email, "Unsupported password hash format");
+                return null;
+            }
+        } else if (row.password() == null || row.password().isEmpty()) {
+            progress.reject(line, email, "Missing password");
+            return null;
+        } else {
+            passwordHash = null;
+        }
+
+        Role role = Role.END_USER;
+        if (row.role() != null && !row.role().isBlank()) {
+            try {
+                role = Role.valueOf(row.role().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                progress.reject(line, email, "Invalid role");
+                return null;
+            }
+        }
+        return new ParsedRow(line, email, row.password(), passwordHash, role);
+    }
+
+    /**
+     * A bare BCrypt hash, or {id}hash for an encoder PasswordEncoderConfig registers
+     */
+    static boolean isVerifiableHash(String passwordHash) {
+        if (passwordHash.startsWith("$2")) {
+            return true;
+        }
+        int end = passwordHash.indexOf('}');
+        return passwordHash.startsWith("{")
+                && end > 1
+                && end < passwordHash.length() - 1
+                && PasswordEncoderConfig.ENCODER_IDS.contains(passwordHash.substring(1, end));
+    }
+
+    /**
+     * Column positions from a header row, or null if the first row is data
+     */
+    private static Map<String, Integer> csvHeader(String line) {
+        List<String> fields = splitCsv(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns.containsKey("email") ? columns : null;
+    }
+
+    private static ImportRow csvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        return new ImportRow(
+                field(fields, columns.get("email")),
+                field(fields, columns.get("password")),
+                field(fields, columns.getOrDefault("passwordhash", columns.get("password_hash"))),
+                field(fields, columns.get("role")));
+    }
+
+    private static String field(List<String> fields, Integer index) {
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    /**
+     * Minimal RFC 4180 split: commas, double-quoted fields and "" escapes
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    private class Progress {
+        private long imported;
+        private long rejected;
+        private final List<ImportConflict> conflicts = new ArrayList<>();
+
+        void reject(long line, String email, String reason) {
+            rejected++;
+            if (conflicts.size() < maxReportedConflicts) {
+                conflicts.add(ImportConflict.builder().line(line).email(email).reason(reason).build());
+            }
+        }
+    }
+}
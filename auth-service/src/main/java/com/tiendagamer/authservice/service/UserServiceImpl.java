@@ -1,23 +1,147 @@
 package com.tiendagamer.authservice.service;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tiendagamer.authservice.config.ReplicaRouting;
 import com.tiendagamer.authservice.model.User;
 import com.tiendagamer.authservice.repository.UserRepository;
 
 @Service
 public class UserServiceImpl implements UserDetailsService {
-    @Autowired
-    private UserRepository repo;
+
+    private final UserRepository repo;
+
+    // Bounded, TTL'd near-cache so authenticated requests don't hit Postgres every time
+    private final Cache<String, User> userCache;
+
+    // Emails written recently enough that a replica may not have them yet
+    private final Cache<String, Boolean> recentWrites;
+
+    public UserServiceImpl(
+            UserRepository repo,
+            @Value("${auth.user-cache.max-size:10000}") long maxSize,
+            @Value("${auth.user-cache.ttl:60s}") Duration ttl,
+            @Value("${auth.datasource.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        this.repo = repo;
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+    }
+
+    /**
+     * Look a user up by email, on the primary if we wrote it within the
+     * read-your-writes window, otherwise wherever read-only work is routed
+     */
+    public Optional<User> findByEmail(String email) {
+        if (recentWrites.getIfPresent(email) != null) {
+            return ReplicaRouting.onPrimary(() -> repo.findByEmail(email));
+        }
+        return repo.findByEmail(email);
+    }
+
+    /**
+     * Whether a user with this email exists, routed like {@link #findByEmail(String)}.
+     * Only a shortcut: a replica that lags can miss a fresh email, and the
+     * unique index in {@link #insertIfAbsent(User)} still decides
+     */
+    public boolean emailExists(String email) {
+        if (recentWrites.getIfPresent(email) != null) {
+            return ReplicaRouting.onPrimary(() -> repo.existsByEmail(email));
+        }
+        return repo.existsByEmail(email);
+    }
+
+    /**
+     * Same as {@link #findByEmail(String)} for many emails at once
+     */
+    public List<User> findByEmailIn(Collection<String> emails) {
+        for (String email : emails) {
+            if (recentWrites.getIfPresent(email) != null) {
+                return ReplicaRouting.onPrimary(() -> repo.findByEmailIn(emails));
+            }
+        }
+        return repo.findByEmailIn(emails);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = repo.findByEmail(email)
+        User cached = userCache.getIfPresent(email);
+        if (cached != null) {
+            return cached;
+        }
+        // Load outside the cache: get(key, loader) runs the query while holding a
+        // map bin monitor, which pins the carrier when called from a virtual thread.
+        // Misses are not cached.
+        User user = findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        userCache.put(email, user);
         return user;
     }
+
+    /**
+     * Insert a new user in a single statement. The unique email index decides
+     * the race between concurrent registrations: empty means the email is taken.
+     */
+    public Optional<User> insertIfAbsent(User user) {
+        try {
+            User saved = repo.saveAndFlush(user);
+            recentWrites.put(saved.getEmail(), Boolean.TRUE);
+            evictUser(saved.getEmail());
+            return Optional.of(saved);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    static boolean isEmailConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraint = violation.getConstraintName();
+                return constraint != null
+                        && constraint.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Store an upgraded password hash produced after a successful login
+     */
+    public void upgradePasswordHash(User user, String oldHash, String newHash) {
+        if (repo.updatePasswordIfUnchanged(user.getId(), oldHash, newHash) > 0) {
+            recentWrites.put(user.getEmail(), Boolean.TRUE);
+            evictUser(user.getEmail());
+        }
+    }
+
+    /**
+     * Drop the cached copy of a user. Call after registration or any
+     * change to the user's role so the next lookup reads fresh state.
+     */
+    public void evictUser(String email) {
+        userCache.invalidate(email);
+    }
 }
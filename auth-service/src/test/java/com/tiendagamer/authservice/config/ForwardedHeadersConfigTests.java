@@ -0,0 +1,60 @@
+package com.tiendagamer.authservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * One login attempt per IP bucket, so the second attempt from the same client
+ * is throttled. MockMvc connects from 127.0.0.1, which stands in for the gateway.
+ */
+@SpringBootTest(properties = {
+		"auth.login-throttle.ip.capacity=1",
+		"auth.login-throttle.ip.refill=1h",
+		"auth.password.calibrate=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("local")
+class ForwardedHeadersConfigTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void clientsBehindTheGatewayGetTheirOwnBucket() throws Exception {
+		mockMvc.perform(login("127.0.0.1", "203.0.113.1")).andExpect(status().isUnauthorized());
+		mockMvc.perform(login("127.0.0.1", "203.0.113.1")).andExpect(status().isTooManyRequests());
+
+		mockMvc.perform(login("127.0.0.1", "203.0.113.2")).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void forwardedForFromUntrustedPeerIsIgnored() throws Exception {
+		mockMvc.perform(login("198.51.100.9", "203.0.113.3")).andExpect(status().isUnauthorized());
+		mockMvc.perform(login("198.51.100.9", "203.0.113.4")).andExpect(status().isTooManyRequests());
+	}
+
+	private static MockHttpServletRequestBuilder login(String peer, String forwardedFor) {
+		// A fresh email each time keeps the per-email bucket out of the way
+		String body = "{\"email\":\"" + UUID.randomUUID() + "@tiendagamer.com\",\"password\":\"secret\"}";
+		return post("/auth/login")
+				.with(request -> {
+					request.setRemoteAddr(peer);
+					return request;
+				})
+				.header("X-Forwarded-For", forwardedFor)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body);
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.tiendagamer.authservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two instances calibrated to different costs must not keep rehashing each
+ * other's hashes: only a lower stored cost is upgraded.
+ */
+class PasswordUpgradeTests {
+
+	@Test
+	void bcryptOnlyUpgradesLowerCost() {
+		BCryptPasswordEncoder slowHost = new BCryptPasswordEncoder(6);
+		BCryptPasswordEncoder fastHost = new BCryptPasswordEncoder(5);
+
+		String fromFastHost = fastHost.encode("secret");
+		assertTrue(slowHost.upgradeEncoding(fromFastHost));
+
+		String fromSlowHost = slowHost.encode("secret");
+		assertFalse(fastHost.upgradeEncoding(fromSlowHost));
+		assertFalse(slowHost.upgradeEncoding(fromSlowHost));
+	}
+
+	@Test
+	void pbkdf2OnlyUpgradesFewerIterations() {
+		Pbkdf2IterationEncoder slowHost = Pbkdf2IterationEncoder.forIterations(2_000);
+		Pbkdf2IterationEncoder fastHost = Pbkdf2IterationEncoder.forIterations(1_000);
+
+		String fromFastHost = fastHost.encode("secret");
+		assertTrue(slowHost.upgradeEncoding(fromFastHost));
+		assertTrue(slowHost.matches("secret", fromFastHost));
+
+		String fromSlowHost = slowHost.encode("secret");
+		assertFalse(fastHost.upgradeEncoding(fromSlowHost));
+		assertTrue(fastHost.matches("secret", fromSlowHost));
+		assertTrue(fastHost.upgradeEncoding("not-a-hash"));
+	}
+}
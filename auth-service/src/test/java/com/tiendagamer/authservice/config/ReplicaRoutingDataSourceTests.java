@@ -0,0 +1,83 @@
+package com.tiendagamer.authservice.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTests {
+
+	private ReplicaRoutingDataSource routing;
+	private JdbcTemplate jdbc;
+	private TransactionTemplate readWrite;
+	private TransactionTemplate readOnly;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primary = h2("primary");
+		DataSource replica = h2("replica");
+		routing = new ReplicaRoutingDataSource(primary, List.of(replica));
+
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		jdbc = new JdbcTemplate(dataSource);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplica() {
+		assertEquals("replica", readOnly.execute(status -> whoAmI()));
+		assertEquals("primary", readWrite.execute(status -> whoAmI()));
+	}
+
+	@Test
+	void readsInsideWriteTransactionStayOnPrimary() {
+		String name = readWrite.execute(status -> readOnly.execute(inner -> whoAmI()));
+
+		assertEquals("primary", name);
+	}
+
+	@Test
+	void forcedPrimaryOverridesReadOnly() {
+		assertEquals("primary", ReplicaRouting.onPrimary(() -> readOnly.execute(status -> whoAmI())));
+	}
+
+	@Test
+	void unhealthyReplicaFallsBackToPrimary() {
+		JdbcDataSource missing = new JdbcDataSource();
+		missing.setURL("jdbc:h2:mem:missing_replica;IFEXISTS=TRUE");
+		routing = new ReplicaRoutingDataSource(h2("primary"), List.of(missing));
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+		jdbc = new JdbcTemplate(dataSource);
+		readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		readOnly.setReadOnly(true);
+
+		routing.checkHealth(1);
+
+		assertEquals(0, routing.healthyReplicas());
+		assertEquals("primary", readOnly.execute(status -> whoAmI()));
+	}
+
+	private String whoAmI() {
+		return jdbc.queryForObject("select name from node", String.class);
+	}
+
+	private static DataSource h2(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + name + "_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("create table node (name varchar(16))");
+		jdbc.update("insert into node values (?)", name);
+		return dataSource;
+	}
+}
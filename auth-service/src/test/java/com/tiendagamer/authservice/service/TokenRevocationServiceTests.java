@@ -0,0 +1,109 @@
+package com.tiendagamer.authservice.service;
+
+import com.tiendagamer.authservice.repository.TokenRevocationRepository;
+import com.tiendagamer.jwtcore.RevocationDelta;
+import com.tiendagamer.jwtcore.RevokedToken;
+import com.tiendagamer.jwtcore.TokenClaims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two service instances over one table stand in for two auth-service
+ * instances behind the load balancer.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationServiceTests {
+
+	@Autowired
+	private TokenRevocationRepository repository;
+
+	@AfterEach
+	void tearDown() {
+		repository.deleteAll();
+	}
+
+	@Test
+	void revocationOnOneInstanceReachesTheOther() {
+		TokenRevocationService a = instance(Duration.ZERO);
+		TokenRevocationService b = instance(Duration.ZERO);
+		TokenClaims token = token("jti-1");
+
+		a.revoke(token);
+		assertTrue(a.isRevoked(token));
+		assertFalse(b.isRevoked(token));
+
+		b.syncFromDatabase();
+		assertTrue(b.isRevoked(token));
+	}
+
+	@Test
+	void pollerKeepsItsCursorWhenSwitchingInstances() {
+		TokenRevocationService a = instance(Duration.ZERO);
+		TokenRevocationService b = instance(Duration.ZERO);
+
+		a.revoke(token("jti-1"));
+		RevocationDelta first = a.changesSince(0, 0);
+		assertTrue(first.reset());
+		assertEquals(List.of("jti-1"), ids(first));
+
+		b.revoke(token("jti-2"));
+		RevocationDelta second = b.changesSince(first.epoch(), first.lastSequence());
+		assertFalse(second.reset());
+		assertEquals(List.of("jti-2"), ids(second));
+	}
+
+	@Test
+	void cursorStaysBeforeUnsettledRows() {
+		TokenRevocationService service = instance(Duration.ofHours(1));
+		service.revoke(token("jti-1"));
+
+		RevocationDelta first = service.changesSince(0, 0);
+		assertEquals(List.of("jti-1"), ids(first));
+		assertEquals(0, first.lastSequence());
+
+		// Sent again until it is older than the settle time
+		RevocationDelta second = service.changesSince(first.epoch(), first.lastSequence());
+		assertEquals(List.of("jti-1"), ids(second));
+	}
+
+	@Test
+	void revokingOnTwoInstancesStoresOneRow() {
+		TokenRevocationService a = instance(Duration.ZERO);
+		TokenRevocationService b = instance(Duration.ZERO);
+		TokenClaims token = token("jti-1");
+
+		a.revoke(token);
+		b.revoke(token);
+
+		assertTrue(b.isRevoked(token));
+		assertEquals(1, repository.count());
+	}
+
+	private TokenRevocationService instance(Duration settleTime) {
+		TokenRevocationService service = new TokenRevocationService(
+				repository, 86_400_000L, Duration.ofHours(1), 1024, 100, settleTime);
+		service.load();
+		return service;
+	}
+
+	private static TokenClaims token(String tokenId) {
+		long now = System.currentTimeMillis();
+		return new TokenClaims("user@x.com", "END_USER", null, tokenId, now, now + 60_000);
+	}
+
+	private static List<String> ids(RevocationDelta delta) {
+		return delta.entries().stream().map(RevokedToken::tokenId).toList();
+	}
+}
@@ -0,0 +1,98 @@
+package com.tiendagamer.authservice.service;
+
+import com.tiendagamer.authservice.dto.ImportReport;
+import com.tiendagamer.authservice.repository.UserRepository;
+import com.tiendagamer.authservice.service.UserImportService.Format;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTests {
+
+	private static final String HASH = "{bcrypt}$2a$10$abcdefghijklmnopqrstuuJ0VQvGp0g2yYyXUTs7gWbUz3c0Xq5Zm";
+
+	private TransactionTemplate transactionTemplate;
+	private UserImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+		transactionTemplate = mock(TransactionTemplate.class);
+		importService = new UserImportService(userRepository, mock(UserServiceImpl.class),
+				mock(PasswordEncoder.class), JsonMapper.builder().build(), mock(EntityManager.class),
+				transactionTemplate, 2, 100);
+	}
+
+	@AfterEach
+	void tearDown() {
+		importService.shutdown();
+	}
+
+	@Test
+	void failedChunkKeepsCommittedProgress() {
+		doNothing()
+				.doThrow(new QueryTimeoutException("connection lost"))
+				.when(transactionTemplate).executeWithoutResult(any());
+
+		ImportReport report = importService.importUsers(rows(5), Format.NDJSON);
+
+		assertEquals(2, report.getImported());
+		assertEquals("connection lost", report.getFailure());
+		assertEquals(3L, report.getFailedAtLine());
+	}
+
+	@Test
+	void completeImportHasNoFailure() {
+		ImportReport report = importService.importUsers(rows(3), Format.NDJSON);
+
+		assertEquals(3, report.getImported());
+		assertNull(report.getFailure());
+		assertNull(report.getFailedAtLine());
+	}
+
+	@Test
+	void acceptsOnlyHashesForRegisteredEncoders() {
+		assertTrue(UserImportService.isVerifiableHash(HASH));
+		assertTrue(UserImportService.isVerifiableHash("$2a$10$abcdefghijklmnopqrstuu"));
+		assertTrue(UserImportService.isVerifiableHash("{pbkdf2}310000$abcd"));
+		assertFalse(UserImportService.isVerifiableHash("{md5}5f4dcc3b5aa765d61d8327deb882cf99"));
+		assertFalse(UserImportService.isVerifiableHash("{noop}password"));
+		assertFalse(UserImportService.isVerifiableHash("{bcrypt}"));
+		assertFalse(UserImportService.isVerifiableHash("{}abc"));
+
+		ImportReport report = importService.importUsers(new BufferedReader(new StringReader(
+				"{\"email\":\"a@x.com\",\"passwordHash\":\"{md5}5f4dcc3b\"}\n")), Format.NDJSON);
+		assertEquals(0, report.getImported());
+		assertEquals("Unsupported password hash format", report.getConflicts().getFirst().getReason());
+	}
+
+	private static BufferedReader rows(int count) {
+		StringBuilder body = new StringBuilder();
+		for (int i = 1; i <= count; i++) {
+			body.append("{\"email\":\"user").append(i).append("@x.com\",\"passwordHash\":\"")
+					.append(HASH).append("\"}\n");
+		}
+		return new BufferedReader(new StringReader(body.toString()));
+	}
+}
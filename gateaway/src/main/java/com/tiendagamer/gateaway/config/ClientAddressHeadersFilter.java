@@ -0,0 +1,36 @@
+package com.tiendagamer.gateaway.config;
+
+import org.springframework.cloud.gateway.server.mvc.filter.HttpHeadersFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+
+/**
+ * Tells the services who the client is. The gateway is the edge, so whatever
+ * forwarding headers the client sent are dropped and X-Forwarded-For is set to
+ * the connecting address; auth-service keys its login throttle on it.
+ */
+@Component
+public class ClientAddressHeadersFilter implements HttpHeadersFilter.RequestHttpHeadersFilter {
+
+    static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    @Override
+    public HttpHeaders apply(HttpHeaders input, ServerRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : input.headerNames()) {
+            if (!isForwardingHeader(name)) {
+                headers.addAll(name, input.get(name));
+            }
+        }
+        String clientAddress = request.servletRequest().getRemoteAddr();
+        if (clientAddress != null) {
+            headers.set(X_FORWARDED_FOR, clientAddress);
+        }
+        return headers;
+    }
+
+    private static boolean isForwardingHeader(String name) {
+        return name.equalsIgnoreCase("Forwarded") || name.regionMatches(true, 0, "X-Forwarded-", 0, 12);
+    }
+}
@@ -1,85 +1,72 @@
-package com.tiendagamer.gateway.config;
+package com.tiendagamer.gateaway.config;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.tiendagamer.jwtcore.JwtVerifier;
+import com.tiendagamer.jwtcore.RevocationList;
+import com.tiendagamer.jwtcore.TokenClaims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.filter.GlobalFilter;
-import org.springframework.core.Ordered;
-import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.web.server.ServerWebExchange;
-import reactor.core.publisher.Mono;
+import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.util.List;
 
+/**
+ * Authenticates gateway requests from the bearer token. Runs inside the security chain, so
+ * the path and role rules live in {@link SecurityConfig}; a missing, invalid or revoked token
+ * just leaves the request anonymous and the chain answers 401.
+ */
 @Component
-public class JwtAuthFilter implements GlobalFilter, Ordered {
+public class JwtAuthFilter extends OncePerRequestFilter {
 
-    @Value("${jwt.secret:mySecretKeyForJwtTokenGenerationAndValidationPurposeOnly}")
-    private String jwtSecret;
+    private final JwtVerifier jwtVerifier;
+    private final RevocationList revocationList;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public JwtAuthFilter(
+            @Value("${jwt.secret:mySecretKeyForJwtTokenGenerationAndValidationPurposeOnly}") String jwtSecret,
+            RevocationList revocationList) {
+        this.jwtVerifier = new JwtVerifier(jwtSecret);
+        this.revocationList = revocationList;
     }
 
     @Override
-    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        String path = exchange.getRequest().getPath().toString();
-        String method = exchange.getRequest().getMethod().toString();
-        
-        // Skip JWT validation for auth endpoints (all methods public)
-        if (path.startsWith("/auth/")) {
-            return chain.filter(exchange);
-        }
-
-        // GET /products is public, no token needed
-        if (path.startsWith("/products") && "GET".equals(method)) {
-            return chain.filter(exchange);
-        }
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
 
-        // All other endpoints require authentication
-        String authHeader = exchange.getRequest().getHeaders().getFirst("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-            return exchange.getResponse().setComplete();
-        }
+        String token = extractTokenFromRequest(request);
 
-        String token = authHeader.substring(7);
-        Claims claims = validateTokenAndExtractClaims(token);
-        
-        if (claims == null) {
-            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-            return exchange.getResponse().setComplete();
-        }
-
-        // Check role-based access for POST /products (admin only)
-        if (path.startsWith("/products") && "POST".equals(method)) {
-            String role = (String) claims.get("role");
-            if (role == null || !role.equals("ADMIN")) {
-                exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
-                return exchange.getResponse().setComplete();
+        if (token != null) {
+            TokenClaims claims = validateTokenAndExtractClaims(token);
+            if (claims != null) {
+                List<SimpleGrantedAuthority> authorities = claims.role() != null
+                        ? List.of(new SimpleGrantedAuthority("ROLE_" + claims.role()))
+                        : List.of();
+                UsernamePasswordAuthenticationToken auth =
+                        new UsernamePasswordAuthenticationToken(claims.subject(), null, authorities);
+                SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
 
-        return chain.filter(exchange);
+        filterChain.doFilter(request, response);
     }
 
-    private Claims validateTokenAndExtractClaims(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (Exception e) {
-            return null;
+    private String extractTokenFromRequest(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring(7);
         }
+        return null;
     }
 
-    @Override
-    public int getOrder() {
-        return -1;
+    private TokenClaims validateTokenAndExtractClaims(String token) {
+        return jwtVerifier.tryVerify(token)
+                .filter(claims -> !revocationList.isRevoked(claims.tokenId(), claims.expiresAt()))
+                .orElse(null);
     }
 }
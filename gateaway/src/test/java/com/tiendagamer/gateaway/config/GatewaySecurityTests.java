@@ -0,0 +1,135 @@
+package com.tiendagamer.gateaway.config;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tiendagamer.jwtcore.JwtSigner;
+import com.tiendagamer.jwtcore.JwtVerifier;
+import com.tiendagamer.jwtcore.RevocationList;
+import com.tiendagamer.jwtcore.TokenClaims;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs requests through the real security chain and routes, with both services
+ * replaced by an in-process upstream that answers 200 to anything that gets through.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class GatewaySecurityTests {
+
+	private static HttpServer upstream;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private RevocationList revocationList;
+
+	@Value("${jwt.secret}")
+	private String secret;
+
+	@BeforeAll
+	static void startUpstream() throws IOException {
+		upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		upstream.createContext("/", exchange -> {
+			byte[] body = "upstream".getBytes(StandardCharsets.UTF_8);
+			String forwardedFor = exchange.getRequestHeaders().getFirst("X-Forwarded-For");
+			if (forwardedFor != null) {
+				exchange.getResponseHeaders().set("X-Seen-Forwarded-For", forwardedFor);
+			}
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		upstream.start();
+	}
+
+	@AfterAll
+	static void stopUpstream() {
+		upstream.stop(0);
+	}
+
+	@DynamicPropertySource
+	static void routeToUpstream(DynamicPropertyRegistry registry) {
+		String url = "http://localhost:" + upstream.getAddress().getPort();
+		// A list property is replaced as a whole, so both routes are spelled out again
+		registry.add("spring.cloud.gateway.server.webmvc.routes[0].id", () -> "auth-service");
+		registry.add("spring.cloud.gateway.server.webmvc.routes[0].uri", () -> url);
+		registry.add("spring.cloud.gateway.server.webmvc.routes[0].predicates[0]", () -> "Path=/auth/**");
+		registry.add("spring.cloud.gateway.server.webmvc.routes[1].id", () -> "product-service");
+		registry.add("spring.cloud.gateway.server.webmvc.routes[1].uri", () -> url);
+		registry.add("spring.cloud.gateway.server.webmvc.routes[1].predicates[0]", () -> "Path=/products/**");
+		registry.add("jwt.revocation.url", () -> url);
+	}
+
+	@Test
+	void authAndCatalogReadsNeedNoToken() throws Exception {
+		mockMvc.perform(post("/auth/login"))
+				.andExpect(status().isOk())
+				.andExpect(content().string("upstream"));
+		mockMvc.perform(get("/products/public/search"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void writesWithoutValidTokenAreUnauthorized() throws Exception {
+		mockMvc.perform(post("/products"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(post("/products").header("Authorization", "Bearer not-a-token"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void onlyAdminsCreateProducts() throws Exception {
+		mockMvc.perform(post("/products").header("Authorization", bearer("END_USER")))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(post("/products").header("Authorization", bearer("ADMIN")))
+				.andExpect(status().isOk())
+				.andExpect(content().string("upstream"));
+	}
+
+	@Test
+	void revokedTokenIsUnauthorized() throws Exception {
+		String token = bearer("ADMIN");
+		TokenClaims claims = new JwtVerifier(secret).verify(token.substring(7));
+		revocationList.revoke(claims.tokenId(), claims.expiresAt());
+
+		mockMvc.perform(post("/products").header("Authorization", token))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void clientAddressReplacesForwardedHeadersFromTheClient() throws Exception {
+		mockMvc.perform(post("/auth/login")
+						.with(request -> {
+							request.setRemoteAddr("203.0.113.7");
+							return request;
+						})
+						.header("X-Forwarded-For", "10.0.0.1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("X-Seen-Forwarded-For", "203.0.113.7"));
+	}
+
+	private String bearer(String role) {
+		return "Bearer " + new JwtSigner(secret, 60_000).sign("user@tiendagamer.com", role, UUID.randomUUID());
+	}
+
+}
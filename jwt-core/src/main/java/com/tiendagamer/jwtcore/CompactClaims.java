@@ -0,0 +1,67 @@
+package com.tiendagamer.jwtcore;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Claim names and encodings of the {@link TokenFormat#COMPACT} profile.
+ */
+public final class CompactClaims {
+
+    public static final String ROLE = "r";
+    public static final String USER_ID = "u";
+
+    // Codes are part of the wire format: never reuse or change one
+    private static final Map<String, String> ROLE_TO_CODE = Map.of(
+            "ADMIN", "A",
+            "END_USER", "U");
+    private static final Map<String, String> CODE_TO_ROLE = Map.of(
+            "A", "ADMIN",
+            "U", "END_USER");
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CompactClaims() {
+    }
+
+    /**
+     * Short code for a role; roles without a code travel by name
+     */
+    public static String encodeRole(String role) {
+        return role == null ? null : ROLE_TO_CODE.getOrDefault(role, role);
+    }
+
+    public static String decodeRole(String code) {
+        return code == null ? null : CODE_TO_ROLE.getOrDefault(code, code);
+    }
+
+    /**
+     * The 16 UUID bytes as 22 base64url characters instead of 36
+     */
+    public static String encodeUuid(UUID uuid) {
+        ByteBuffer bytes = ByteBuffer.allocate(16);
+        bytes.putLong(uuid.getMostSignificantBits());
+        bytes.putLong(uuid.getLeastSignificantBits());
+        return ENCODER.encodeToString(bytes.array());
+    }
+
+    /**
+     * Null unless the value is a 22-char encoded UUID
+     */
+    public static UUID decodeUuid(String value) {
+        if (value == null || value.length() != 22) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,19 @@
+package com.tiendagamer.jwtcore;
+
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+
+public final class JwtKeys {
+
+    private JwtKeys() {
+    }
+
+    /**
+     * Build the HMAC signing key from the shared {@code jwt.secret} value
+     */
+    public static SecretKey hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
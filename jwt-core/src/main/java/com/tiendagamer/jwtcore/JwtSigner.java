@@ -0,0 +1,73 @@
+package com.tiendagamer.jwtcore;
+
+import io.jsonwebtoken.Jwts;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Issues signed tokens with a key derived once at construction.
+ */
+public final class JwtSigner {
+
+    private final SecretKey key;
+    private final long expirationMillis;
+    private final TokenFormat format;
+
+    public JwtSigner(String secret, long expirationMillis) {
+        this(secret, expirationMillis, TokenFormat.STANDARD);
+    }
+
+    public JwtSigner(String secret, long expirationMillis, TokenFormat format) {
+        this.key = JwtKeys.hmacKey(secret);
+        this.expirationMillis = expirationMillis;
+        this.format = format;
+    }
+
+    /**
+     * Sign a user token in the configured {@link TokenFormat}
+     */
+    public String sign(String subject, String role, UUID userId) {
+        if (format == TokenFormat.STANDARD) {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put(TokenClaims.ROLE, role);
+            claims.put(TokenClaims.USER_ID, userId);
+            return sign(subject, claims);
+        }
+        return Jwts.builder()
+                .claim(CompactClaims.ROLE, CompactClaims.encodeRole(role))
+                .claim(CompactClaims.USER_ID, userId != null ? CompactClaims.encodeUuid(userId) : null)
+                .id(CompactClaims.encodeUuid(UUID.randomUUID()))
+                .subject(subject)
+                .expiration(new Date(System.currentTimeMillis() + expirationMillis))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Sign a token for the subject with the given custom claims.
+     * Every token gets a random {@code jti} so it can be revoked individually.
+     */
+    public String sign(String subject, Map<String, ?> claims) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claims(claims)
+                .id(UUID.randomUUID().toString())
+                .subject(subject)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expirationMillis))
+                .signWith(key)
+                .compact();
+    }
+
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    public TokenFormat getFormat() {
+        return format;
+    }
+}
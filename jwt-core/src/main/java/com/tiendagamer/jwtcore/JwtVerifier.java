@@ -0,0 +1,172 @@
+package com.tiendagamer.jwtcore;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Verifies tokens signed by {@link JwtSigner} without throwing on the reject
+ * path. Structural checks (length, segment layout, alphabet, header) run before
+ * any crypto, so junk tokens are turned away without an HMAC or an exception.
+ * Only tokens that look like ours pay for the signature check, and only
+ * correctly signed ones for JSON parsing.
+ */
+public final class JwtVerifier {
+
+    /** Anything longer is not a token we issued */
+    static final int MAX_TOKEN_LENGTH = 8192;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKey key;
+    private final Mac prototype;
+    private final String expectedHeader;
+    private final int signatureLength;
+    private final VerificationStats stats;
+
+    public JwtVerifier(String secret) {
+        this(secret, new VerificationStats(60_000));
+    }
+
+    public JwtVerifier(String secret, VerificationStats stats) {
+        this.key = JwtKeys.hmacKey(secret);
+        this.stats = stats;
+        this.prototype = newMac(key);
+
+        // The signer always emits the same header for a given key, so take it
+        // (and the signature length) from a probe token
+        String probe = Jwts.builder().subject("probe").signWith(key).compact();
+        this.expectedHeader = probe.substring(0, probe.indexOf('.'));
+        this.signatureLength = probe.length() - probe.lastIndexOf('.') - 1;
+    }
+
+    /**
+     * Verify signature and expiration and report the outcome instead of throwing
+     */
+    public VerificationResult check(String token) {
+        VerificationResult result = doCheck(token);
+        stats.record(result.status());
+        return result;
+    }
+
+    /**
+     * Verify signature and expiration, parsing the token exactly once
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public TokenClaims verify(String token) {
+        VerificationResult result = check(token);
+        if (!result.isValid()) {
+            throw new JwtException(result.message());
+        }
+        return result.claims();
+    }
+
+    /**
+     * Same as {@link #verify(String)} but empty instead of throwing
+     */
+    public Optional<TokenClaims> tryVerify(String token) {
+        VerificationResult result = check(token);
+        return result.isValid() ? Optional.of(result.claims()) : Optional.empty();
+    }
+
+    public VerificationStats getStats() {
+        return stats;
+    }
+
+    private VerificationResult doCheck(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return VerificationResult.MALFORMED;
+        }
+
+        int length = token.length();
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return VerificationResult.MALFORMED;
+                }
+            } else if (!isBase64Url(c)) {
+                return VerificationResult.MALFORMED;
+            }
+        }
+        if (secondDot < 0 || secondDot == firstDot + 1 || (secondDot - firstDot - 1) % 4 == 1) {
+            return VerificationResult.MALFORMED;
+        }
+        if (firstDot != expectedHeader.length() || !token.startsWith(expectedHeader)) {
+            return VerificationResult.MALFORMED;
+        }
+        if (length - secondDot - 1 != signatureLength) {
+            return VerificationResult.BAD_SIGNATURE;
+        }
+
+        Mac mac = mac();
+        mac.update(token.substring(0, secondDot).getBytes(StandardCharsets.US_ASCII));
+        byte[] signature = DECODER.decode(token.substring(secondDot + 1));
+        if (!MessageDigest.isEqual(mac.doFinal(), signature)) {
+            return VerificationResult.BAD_SIGNATURE;
+        }
+
+        TokenClaims claims;
+        try {
+            claims = TokenClaims.fromPayload(MAPPER.readValue(
+                    DECODER.decode(token.substring(firstDot + 1, secondDot)), PAYLOAD_TYPE));
+        } catch (IOException e) {
+            // We signed it, so this only happens if the signer itself misbehaved
+            return VerificationResult.MALFORMED;
+        }
+        if (claims == null) {
+            return VerificationResult.MALFORMED;
+        }
+        return claims.isExpired(System.currentTimeMillis())
+                ? VerificationResult.expired(claims)
+                : VerificationResult.valid(claims);
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
+    /**
+     * Mac instances are not thread-safe; cloning the initialised prototype is
+     * cheaper than a fresh init and, unlike a ThreadLocal, does not pile up
+     * one instance per virtual thread
+     */
+    private Mac mac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return newMac(key);
+        }
+    }
+
+    private static Mac newMac(SecretKey key) {
+        try {
+            Mac mac = Mac.getInstance(key.getAlgorithm());
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + key.getAlgorithm(), e);
+        }
+    }
+}
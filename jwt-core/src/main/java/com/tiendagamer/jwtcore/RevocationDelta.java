@@ -0,0 +1,13 @@
+package com.tiendagamer.jwtcore;
+
+import java.util.List;
+
+/**
+ * Revocations recorded after a given sequence number.
+ *
+ * {@code epoch} identifies the sequence the feed is numbered by. When it
+ * differs from the caller's, {@code reset} is set and {@code entries} start
+ * over from the beginning; a caller that has never polled always gets a reset.
+ */
+public record RevocationDelta(long epoch, long lastSequence, boolean reset, List<RevokedToken> entries) {
+}
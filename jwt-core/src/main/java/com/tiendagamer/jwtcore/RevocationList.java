@@ -0,0 +1,191 @@
+package com.tiendagamer.jwtcore;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Memory-bounded set of revoked token ids.
+ *
+ * Entries are grouped into buckets by token expiration time. Each bucket has
+ * a Bloom filter in front of an exact set, and a bucket is dropped as a whole
+ * once every token in it has expired, so memory never grows past the tokens
+ * revoked within one token lifetime.
+ *
+ * {@link #isRevoked(String, long)} runs on every request. It is O(1) and does
+ * not allocate: bucket arithmetic, a ring slot read, the cached
+ * {@link String#hashCode()}, and only on a Bloom hit an exact set lookup.
+ */
+public final class RevocationList {
+
+    private static final int HASHES = 3;
+
+    private final long bucketMillis;
+    private final long horizonMillis;
+    private final int bloomBits;
+    private final AtomicReferenceArray<Bucket> ring;
+    private final ReentrantLock bucketLock = new ReentrantLock();
+    private final LongSupplier clock;
+
+    /**
+     * @param maxTokenLifetimeMillis longest lifetime of any token that can be revoked
+     * @param bucketMillis           width of one expiry bucket
+     * @param bloomBitsPerBucket     Bloom filter size, rounded up to a power of two
+     */
+    public RevocationList(long maxTokenLifetimeMillis, long bucketMillis, int bloomBitsPerBucket) {
+        this(maxTokenLifetimeMillis, bucketMillis, bloomBitsPerBucket, System::currentTimeMillis);
+    }
+
+    RevocationList(long maxTokenLifetimeMillis, long bucketMillis, int bloomBitsPerBucket, LongSupplier clock) {
+        if (bucketMillis <= 0 || maxTokenLifetimeMillis <= 0) {
+            throw new IllegalArgumentException("Token lifetime and bucket width must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        this.horizonMillis = maxTokenLifetimeMillis + bucketMillis;
+        this.bloomBits = Math.max(64, Integer.highestOneBit(Math.max(1, bloomBitsPerBucket - 1)) << 1);
+        this.ring = new AtomicReferenceArray<>((int) (horizonMillis / bucketMillis) + 2);
+        this.clock = clock;
+    }
+
+    /**
+     * Check whether a token id was revoked. Expiration is the token's own
+     * {@code exp}, which selects the bucket without scanning.
+     */
+    public boolean isRevoked(String tokenId, long expiresAt) {
+        if (tokenId == null) {
+            return false;
+        }
+        long index = expiresAt / bucketMillis;
+        Bucket bucket = ring.get(slot(index));
+        return bucket != null
+                && bucket.index == index
+                && bucket.mightContain(tokenId)
+                && bucket.tokenIds.contains(tokenId);
+    }
+
+    /**
+     * Revoke a token id until its expiration. Already expired tokens are ignored.
+     */
+    public void revoke(String tokenId, long expiresAt) {
+        long now = clock.getAsLong();
+        if (tokenId == null || expiresAt <= now) {
+            return;
+        }
+        if (expiresAt > now + horizonMillis) {
+            throw new IllegalArgumentException("Token expires beyond the configured maximum lifetime");
+        }
+
+        long index = expiresAt / bucketMillis;
+        int slot = slot(index);
+        Bucket bucket = ring.get(slot);
+        if (bucket == null || bucket.index != index) {
+            bucketLock.lock();
+            try {
+                bucket = ring.get(slot);
+                // A different index in this slot can only be an expired bucket
+                if (bucket == null || bucket.index != index) {
+                    bucket = new Bucket(index, bloomBits);
+                    ring.set(slot, bucket);
+                }
+            } finally {
+                bucketLock.unlock();
+            }
+        }
+        bucket.add(tokenId);
+    }
+
+    /**
+     * Drop every bucket whose tokens have all expired
+     */
+    public void purgeExpired() {
+        long now = clock.getAsLong();
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && (bucket.index + 1) * bucketMillis <= now) {
+                ring.compareAndSet(i, bucket, null);
+            }
+        }
+    }
+
+    /**
+     * Forget everything, e.g. when the source of revocations restarted
+     */
+    public void clear() {
+        for (int i = 0; i < ring.length(); i++) {
+            ring.set(i, null);
+        }
+    }
+
+    /**
+     * Number of revoked ids currently held
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null) {
+                size += bucket.tokenIds.size();
+            }
+        }
+        return size;
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) ring.length());
+    }
+
+    private static final class Bucket {
+
+        private final long index;
+        private final int mask;
+        private final AtomicLongArray bloom;
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        Bucket(long index, int bits) {
+            this.index = index;
+            this.mask = bits - 1;
+            this.bloom = new AtomicLongArray(bits >>> 6);
+        }
+
+        void add(String tokenId) {
+            // Exact set first: a concurrent reader that sees the Bloom bits must find the id
+            tokenIds.add(tokenId);
+            int h1 = tokenId.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                int word = bit >>> 6;
+                long bitMask = 1L << bit;
+                long current;
+                do {
+                    current = bloom.get(word);
+                } while ((current & bitMask) == 0 && !bloom.compareAndSet(word, current, current | bitMask));
+            }
+        }
+
+        boolean mightContain(String tokenId) {
+            int h1 = tokenId.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if ((bloom.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int mix(int h) {
+            // murmur3 fmix32, odd so the probe sequence never repeats a bit
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h | 1;
+        }
+    }
+}
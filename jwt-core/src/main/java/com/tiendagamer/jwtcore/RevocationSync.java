@@ -0,0 +1,49 @@
+package com.tiendagamer.jwtcore;
+
+/**
+ * Follows the auth-service revocation feed and applies each delta to a local
+ * {@link RevocationList}. Callers fetch with {@link #epoch()} and
+ * {@link #since()} and pass the response to {@link #apply(RevocationDelta)}.
+ */
+public final class RevocationSync {
+
+    private final RevocationList revocations;
+
+    private volatile long epoch;
+    private volatile long since;
+
+    public RevocationSync(RevocationList revocations) {
+        this.revocations = revocations;
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    public long since() {
+        return since;
+    }
+
+    public RevocationList revocations() {
+        return revocations;
+    }
+
+    /**
+     * Apply one delta. Only one poller should call this at a time.
+     */
+    public void apply(RevocationDelta delta) {
+        if (delta.reset() || delta.epoch() != epoch) {
+            revocations.clear();
+        }
+        for (RevokedToken token : delta.entries()) {
+            try {
+                revocations.revoke(token.tokenId(), token.expiresAt());
+            } catch (IllegalArgumentException e) {
+                // Lifetime longer than this verifier expects; it cannot be bucketed
+            }
+        }
+        revocations.purgeExpired();
+        epoch = delta.epoch();
+        since = delta.lastSequence();
+    }
+}
@@ -0,0 +1,7 @@
+package com.tiendagamer.jwtcore;
+
+/**
+ * One revocation as exchanged between auth-service and the other verifiers
+ */
+public record RevokedToken(String tokenId, long expiresAt) {
+}
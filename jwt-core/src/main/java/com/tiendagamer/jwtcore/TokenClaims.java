@@ -0,0 +1,98 @@
+package com.tiendagamer.jwtcore;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable view of the claims carried by a verified token.
+ * Built once per parse so callers never go back to the raw token.
+ */
+public record TokenClaims(
+        String subject,
+        String role,
+        String userId,
+        String tokenId,
+        long issuedAt,
+        long expiresAt) {
+
+    public static final String ROLE = "role";
+    public static final String USER_ID = "userId";
+
+    /**
+     * Role of the short-lived tokens services sign for each other, e.g. to
+     * pull the revocation feed. No user can be registered with it.
+     */
+    public static final String SERVICE_ROLE = "SERVICE";
+
+    /**
+     * Copy the claims we use out of a parsed jjwt payload
+     */
+    public static TokenClaims from(Claims claims) {
+        return new TokenClaims(
+                claims.getSubject(),
+                role(claims),
+                userId(claims),
+                claims.getId(),
+                toMillis(claims.getIssuedAt()),
+                toMillis(claims.getExpiration()));
+    }
+
+    /**
+     * Copy the claims we use out of a raw JSON payload, where {@code iat} and
+     * {@code exp} are seconds since the epoch. Null if they are not numbers.
+     * Reads both {@link TokenFormat}s.
+     */
+    static TokenClaims fromPayload(Map<String, Object> payload) {
+        Object issuedAt = payload.get("iat");
+        Object expiresAt = payload.get("exp");
+        if ((issuedAt != null && !(issuedAt instanceof Number)) || (expiresAt != null && !(expiresAt instanceof Number))) {
+            return null;
+        }
+        return new TokenClaims(
+                asString(payload.get("sub")),
+                role(payload),
+                userId(payload),
+                asString(payload.get("jti")),
+                issuedAt != null ? ((Number) issuedAt).longValue() * 1000 : 0L,
+                expiresAt != null ? ((Number) expiresAt).longValue() * 1000 : 0L);
+    }
+
+    /**
+     * Check expiration against the given wall-clock time
+     */
+    public boolean isExpired(long nowMillis) {
+        return expiresAt != 0 && expiresAt <= nowMillis;
+    }
+
+    private static String role(Map<String, Object> payload) {
+        Object role = payload.get(ROLE);
+        if (role != null) {
+            return role.toString();
+        }
+        return CompactClaims.decodeRole(asString(payload.get(CompactClaims.ROLE)));
+    }
+
+    private static String userId(Map<String, Object> payload) {
+        Object userId = payload.get(USER_ID);
+        if (userId != null) {
+            return userId.toString();
+        }
+        Object compact = payload.get(CompactClaims.USER_ID);
+        if (compact == null) {
+            return null;
+        }
+        UUID uuid = CompactClaims.decodeUuid(compact.toString());
+        return uuid != null ? uuid.toString() : null;
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static long toMillis(Date date) {
+        return date != null ? date.getTime() : 0L;
+    }
+}
@@ -0,0 +1,11 @@
+package com.tiendagamer.jwtcore;
+
+/**
+ * Claim layout used when issuing tokens. Verifiers accept both.
+ */
+public enum TokenFormat {
+    /** {@code role}, {@code userId} as a UUID string, {@code iat}, {@code exp}, UUID {@code jti} */
+    STANDARD,
+    /** {@code r} as a role code, {@code u} and {@code jti} as 22-char base64url, {@code exp}; no {@code iat} */
+    COMPACT
+}
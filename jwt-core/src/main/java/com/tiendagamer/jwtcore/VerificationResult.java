@@ -0,0 +1,48 @@
+package com.tiendagamer.jwtcore;
+
+/**
+ * Outcome of verifying a token. Rejections without claims are shared
+ * constants, so rejecting junk does not allocate.
+ */
+public record VerificationResult(Status status, TokenClaims claims) {
+
+    public enum Status {
+        VALID,
+        EXPIRED,
+        BAD_SIGNATURE,
+        MALFORMED,
+        REVOKED
+    }
+
+    static final VerificationResult MALFORMED = new VerificationResult(Status.MALFORMED, null);
+    static final VerificationResult BAD_SIGNATURE = new VerificationResult(Status.BAD_SIGNATURE, null);
+
+    public static VerificationResult valid(TokenClaims claims) {
+        return new VerificationResult(Status.VALID, claims);
+    }
+
+    public static VerificationResult expired(TokenClaims claims) {
+        return new VerificationResult(Status.EXPIRED, claims);
+    }
+
+    public static VerificationResult revoked(TokenClaims claims) {
+        return new VerificationResult(Status.REVOKED, claims);
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    /**
+     * Human readable reason, for error responses
+     */
+    public String message() {
+        return switch (status) {
+            case VALID -> "Token is valid";
+            case EXPIRED -> "Token has expired";
+            case BAD_SIGNATURE -> "Token signature is invalid";
+            case MALFORMED -> "Token is malformed";
+            case REVOKED -> "Token has been revoked";
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.tiendagamer.jwtcore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts verification outcomes and logs rejections as one summary line per
+ * interval instead of one line per bad token.
+ */
+public final class VerificationStats {
+
+    private static final Logger log = LoggerFactory.getLogger(VerificationStats.class);
+
+    private final Map<VerificationResult.Status, LongAdder> counts = new EnumMap<>(VerificationResult.Status.class);
+    private final Map<VerificationResult.Status, LongAdder> sinceLastLog = new EnumMap<>(VerificationResult.Status.class);
+    private final long logIntervalMillis;
+    private final AtomicLong nextLogAt;
+
+    public VerificationStats(long logIntervalMillis) {
+        for (VerificationResult.Status status : VerificationResult.Status.values()) {
+            counts.put(status, new LongAdder());
+            sinceLastLog.put(status, new LongAdder());
+        }
+        this.logIntervalMillis = logIntervalMillis;
+        this.nextLogAt = new AtomicLong(System.currentTimeMillis() + logIntervalMillis);
+    }
+
+    public void record(VerificationResult.Status status) {
+        counts.get(status).increment();
+        if (status == VerificationResult.Status.VALID) {
+            return;
+        }
+        sinceLastLog.get(status).increment();
+
+        long now = System.currentTimeMillis();
+        long due = nextLogAt.get();
+        // Only the thread that wins the CAS writes the summary
+        if (now >= due && nextLogAt.compareAndSet(due, now + logIntervalMillis)) {
+            log.warn("Rejected tokens in the last {}s: expired={} badSignature={} malformed={} revoked={}",
+                    logIntervalMillis / 1000,
+                    sinceLastLog.get(VerificationResult.Status.EXPIRED).sumThenReset(),
+                    sinceLastLog.get(VerificationResult.Status.BAD_SIGNATURE).sumThenReset(),
+                    sinceLastLog.get(VerificationResult.Status.MALFORMED).sumThenReset(),
+                    sinceLastLog.get(VerificationResult.Status.REVOKED).sumThenReset());
+        }
+    }
+
+    /**
+     * Total number of verifications that ended with the given status
+     */
+    public long count(VerificationResult.Status status) {
+        return counts.get(status).sum();
+    }
+}
@@ -0,0 +1,80 @@
+package com.tiendagamer.jwtcore.autoconfigure;
+
+import com.tiendagamer.jwtcore.JwtSigner;
+import com.tiendagamer.jwtcore.RevocationDelta;
+import com.tiendagamer.jwtcore.RevocationList;
+import com.tiendagamer.jwtcore.RevocationSync;
+import com.tiendagamer.jwtcore.TokenClaims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Keeps a local copy of auth-service's revoked tokens by pulling deltas,
+ * so revocation checks never leave the process. Active in every service that
+ * sets {@code jwt.revocation.url}; auth-service owns the list and does not.
+ * The feed is internal, so each poll carries a short-lived service token.
+ */
+@AutoConfiguration
+@ConditionalOnClass(RestClient.class)
+@ConditionalOnProperty(prefix = "jwt.revocation", name = "url")
+@EnableScheduling
+public class RevocationSyncAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationSyncAutoConfiguration.class);
+
+    private static final long SERVICE_TOKEN_LIFETIME_MILLIS = 60_000;
+
+    private final RevocationSync revocationSync;
+    private final RestClient restClient;
+    private final JwtSigner serviceTokens;
+    private final String serviceName;
+
+    public RevocationSyncAutoConfiguration(
+            @Value("${jwt.expiration:86400000}") long jwtExpiration,
+            @Value("${jwt.revocation.bucket:1h}") Duration bucket,
+            @Value("${jwt.revocation.bloom-bits:65536}") int bloomBits,
+            @Value("${jwt.revocation.url}") String authServiceUrl,
+            @Value("${jwt.secret}") String jwtSecret,
+            @Value("${spring.application.name:service}") String serviceName) {
+        this.revocationSync = new RevocationSync(new RevocationList(jwtExpiration, bucket.toMillis(), bloomBits));
+        this.restClient = RestClient.create(authServiceUrl);
+        this.serviceTokens = new JwtSigner(jwtSecret, SERVICE_TOKEN_LIFETIME_MILLIS);
+        this.serviceName = serviceName;
+    }
+
+    @Bean
+    public RevocationList revocationList() {
+        return revocationSync.revocations();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:5s}")
+    public void pullRevocations() {
+        try {
+            RevocationDelta delta = restClient.get()
+                    .uri("/auth/revocations?epoch={epoch}&since={since}", revocationSync.epoch(), revocationSync.since())
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer "
+                            + serviceTokens.sign(serviceName, Map.of(TokenClaims.ROLE, TokenClaims.SERVICE_ROLE)))
+                    .retrieve()
+                    .body(RevocationDelta.class);
+            if (delta != null) {
+                revocationSync.apply(delta);
+            }
+        } catch (RestClientException e) {
+            // Keep serving with the last known list; the next poll catches up
+            log.debug("Revocation sync failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.tiendagamer.jwtcore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtVerifierTests {
+
+	private static final String SECRET = "x7Sj4xYtJf3gQ2jS8E6Mf9q2p9M4Q3r8hVhTjPQd8zE=";
+
+	private final JwtSigner signer = new JwtSigner(SECRET, 60_000);
+	private final JwtVerifier verifier = new JwtVerifier(SECRET);
+
+	@Test
+	void verifiesClaimsInOneParse() {
+		UUID userId = UUID.randomUUID();
+		String token = signer.sign("gamer@tienda.com", Map.of("role", "ADMIN", "userId", userId));
+
+		TokenClaims claims = verifier.verify(token);
+
+		assertEquals("gamer@tienda.com", claims.subject());
+		assertEquals("ADMIN", claims.role());
+		assertEquals(userId.toString(), claims.userId());
+		assertFalse(claims.isExpired(System.currentTimeMillis()));
+	}
+
+	@Test
+	void rejectsTokenSignedWithAnotherKey() {
+		JwtSigner other = new JwtSigner("another-secret-another-secret-another-secret", 60_000);
+		String token = other.sign("gamer@tienda.com", Map.of());
+
+		assertTrue(verifier.tryVerify(token).isEmpty());
+	}
+
+	@Test
+	void rejectsExpiredToken() {
+		String token = new JwtSigner(SECRET, -1_000).sign("gamer@tienda.com", Map.of());
+
+		assertTrue(verifier.tryVerify(token).isEmpty());
+	}
+
+	@Test
+	void rejectsGarbage() {
+		assertTrue(verifier.tryVerify("not-a-token").isEmpty());
+		assertTrue(verifier.tryVerify("").isEmpty());
+		assertTrue(verifier.tryVerify(null).isEmpty());
+	}
+
+	@Test
+	void reportsWhyTokenWasRejected() {
+		String token = signer.sign("gamer@tienda.com", Map.of());
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+		String expired = new JwtSigner(SECRET, -1_000).sign("gamer@tienda.com", Map.of());
+
+		assertEquals(VerificationResult.Status.VALID, verifier.check(token).status());
+		assertEquals(VerificationResult.Status.BAD_SIGNATURE, verifier.check(tampered).status());
+		assertEquals(VerificationResult.Status.MALFORMED, verifier.check("a.b.c.d").status());
+		assertEquals(VerificationResult.Status.MALFORMED, verifier.check("Bearer " + token).status());
+
+		VerificationResult result = verifier.check(expired);
+		assertEquals(VerificationResult.Status.EXPIRED, result.status());
+		assertEquals("gamer@tienda.com", result.claims().subject());
+		assertEquals(2, verifier.getStats().count(VerificationResult.Status.MALFORMED));
+	}
+
+	@Test
+	void readsBothTokenFormats() {
+		UUID userId = UUID.randomUUID();
+		String standard = new JwtSigner(SECRET, 60_000, TokenFormat.STANDARD).sign("gamer@tienda.com", "ADMIN", userId);
+		String compact = new JwtSigner(SECRET, 60_000, TokenFormat.COMPACT).sign("gamer@tienda.com", "ADMIN", userId);
+
+		for (String token : new String[] {standard, compact}) {
+			TokenClaims claims = verifier.verify(token);
+			assertEquals("gamer@tienda.com", claims.subject());
+			assertEquals("ADMIN", claims.role());
+			assertEquals(userId.toString(), claims.userId());
+		}
+		assertEquals(22, verifier.verify(compact).tokenId().length());
+		// Sizes are fixed for a given subject and role; every hop pays them in the Authorization header
+		assertEquals(289, standard.length());
+		assertEquals(213, compact.length());
+	}
+}
@@ -0,0 +1,70 @@
+package com.tiendagamer.jwtcore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationListTests {
+
+	private static final long HOUR = 3_600_000L;
+
+	private final AtomicLong now = new AtomicLong(10 * HOUR);
+	private final RevocationList revocations = new RevocationList(24 * HOUR, HOUR, 1 << 12, now::get);
+
+	@Test
+	void revokedIdIsFoundUntilItsBucketExpires() {
+		long expiresAt = now.get() + 2 * HOUR;
+		revocations.revoke("jti-1", expiresAt);
+
+		assertTrue(revocations.isRevoked("jti-1", expiresAt));
+		assertFalse(revocations.isRevoked("jti-2", expiresAt));
+		assertFalse(revocations.isRevoked("jti-1", expiresAt + 5 * HOUR));
+
+		now.addAndGet(3 * HOUR);
+		revocations.purgeExpired();
+
+		assertFalse(revocations.isRevoked("jti-1", expiresAt));
+		assertEquals(0, revocations.size());
+	}
+
+	@Test
+	void slotIsReusedOnceItsBucketExpired() {
+		long first = now.get() + HOUR;
+		revocations.revoke("old", first);
+
+		// 24h lifetime + 1h bucket -> 27 slots, so first + 27h lands in the same slot
+		now.addAndGet(3 * HOUR);
+		long later = first + 27 * HOUR;
+		revocations.revoke("new", later);
+
+		assertTrue(revocations.isRevoked("new", later));
+		assertFalse(revocations.isRevoked("old", first));
+	}
+
+	@Test
+	void rejectsExpirationBeyondTheHorizon() {
+		assertThrows(IllegalArgumentException.class,
+				() -> revocations.revoke("far", now.get() + 48 * HOUR));
+	}
+
+	@Test
+	void syncResetsWhenTheEpochChanges() {
+		RevocationSync sync = new RevocationSync(revocations);
+		long expiresAt = now.get() + HOUR;
+
+		sync.apply(new RevocationDelta(1, 3, false, List.of(new RevokedToken("a", expiresAt))));
+		assertTrue(revocations.isRevoked("a", expiresAt));
+		assertEquals(3, sync.since());
+
+		sync.apply(new RevocationDelta(2, 1, true, List.of(new RevokedToken("b", expiresAt))));
+		assertFalse(revocations.isRevoked("a", expiresAt));
+		assertTrue(revocations.isRevoked("b", expiresAt));
+		assertEquals(2, sync.epoch());
+	}
+}
@@ -0,0 +1,101 @@
+package com.tiendagamer.jwtcore.benchmark;
+
+import com.tiendagamer.jwtcore.JwtSigner;
+import com.tiendagamer.jwtcore.JwtVerifier;
+import com.tiendagamer.jwtcore.TokenClaims;
+import com.tiendagamer.jwtcore.VerificationResult;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the shared verifier against the per-call key/parser pattern the
+ * services used before (and the triple parse of the old auth-service
+ * {@code validateToken}).
+ *
+ * The garbage benchmarks show the cost of turning away junk tokens with the
+ * result-type fast path versus letting jjwt throw.
+ *
+ * Run with {@code mvn -Pbenchmark verify} from the jwt-core directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtVerifierBenchmark {
+
+    private static final String SECRET = "x7Sj4xYtJf3gQ2jS8E6Mf9q2p9M4Q3r8hVhTjPQd8zE=";
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET.getBytes());
+
+    private JwtVerifier verifier;
+    private String token;
+    private String garbage;
+
+    @Setup
+    public void setUp() {
+        verifier = new JwtVerifier(SECRET);
+        token = new JwtSigner(SECRET, TimeUnit.HOURS.toMillis(1))
+                .sign("gamer@tienda.com", Map.of("role", "END_USER", "userId", UUID.randomUUID()));
+        garbage = token.substring(0, token.length() / 2) + "!" + token.substring(token.length() / 2);
+    }
+
+    @Benchmark
+    public TokenClaims sharedVerifier() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return parseWithFreshParser();
+    }
+
+    @Benchmark
+    public boolean tripleParsePerCall() {
+        String subject = parseWithFreshParser().getSubject();
+        String again = parseWithFreshParser().getSubject();
+        return subject.equals(again) && parseWithFreshParser().getExpiration().getTime() > System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public VerificationResult rejectGarbage() {
+        return verifier.check(garbage);
+    }
+
+    @Benchmark
+    public boolean rejectGarbageWithException() {
+        try {
+            Jwts.parser().verifyWith(KEY).build().parseSignedClaims(garbage);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Claims parseWithFreshParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,64 @@
+package com.tiendagamer.jwtcore.benchmark;
+
+import com.tiendagamer.jwtcore.JwtSigner;
+import com.tiendagamer.jwtcore.JwtVerifier;
+import com.tiendagamer.jwtcore.TokenClaims;
+import com.tiendagamer.jwtcore.TokenFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify cost of the two {@link TokenFormat}s. Token sizes, which
+ * every hop pays in headers, are pinned in JwtVerifierTests instead.
+ *
+ * Run with {@code mvn -Pbenchmark verify} from the jwt-core directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenFormatBenchmark {
+
+    private static final String SECRET = "x7Sj4xYtJf3gQ2jS8E6Mf9q2p9M4Q3r8hVhTjPQd8zE=";
+
+    @Param({"STANDARD", "COMPACT"})
+    private TokenFormat format;
+
+    private JwtSigner signer;
+    private JwtVerifier verifier;
+    private UUID userId;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        signer = new JwtSigner(SECRET, TimeUnit.HOURS.toMillis(1), format);
+        verifier = new JwtVerifier(SECRET);
+        userId = UUID.randomUUID();
+        token = signer.sign("gamer@tienda.com", "END_USER", userId);
+    }
+
+    @Benchmark
+    public TokenClaims verify() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public String sign() {
+        return signer.sign("gamer@tienda.com", "END_USER", userId);
+    }
+}
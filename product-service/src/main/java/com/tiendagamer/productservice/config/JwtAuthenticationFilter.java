@@ -6,11 +6,13 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -24,11 +26,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         String token = extractTokenFromRequest(request);
 
-        if (token != null && jwtService.validateToken(token)) {
-            String username = jwtService.extractUsername(token);
-            UsernamePasswordAuthenticationToken auth = 
-                new UsernamePasswordAuthenticationToken(username, null, null);
-            SecurityContextHolder.getContext().setAuthentication(auth);
+        if (token != null) {
+            jwtService.verify(token).ifPresent(claims -> {
+                // Same authority names auth-service's Role enum uses, so hasRole('ADMIN') works here too
+                List<SimpleGrantedAuthority> authorities = claims.role() != null
+                        ? List.of(new SimpleGrantedAuthority("ROLE_" + claims.role()))
+                        : List.of();
+                UsernamePasswordAuthenticationToken auth = 
+                    new UsernamePasswordAuthenticationToken(claims.subject(), null, authorities);
+                SecurityContextHolder.getContext().setAuthentication(auth);
+            });
         }
 
         filterChain.doFilter(request, response);
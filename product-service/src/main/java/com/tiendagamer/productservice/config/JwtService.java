@@ -1,48 +1,45 @@
 package com.tiendagamer.productservice.config;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.tiendagamer.jwtcore.JwtVerifier;
+import com.tiendagamer.jwtcore.RevocationList;
+import com.tiendagamer.jwtcore.TokenClaims;
+import com.tiendagamer.jwtcore.VerificationResult;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import java.util.Optional;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final JwtVerifier verifier;
+    private final RevocationList revocationList;
 
-    @Value("${jwt.expiration}")
-    private int jwtExpiration;
-
-    public String extractUsername(String token) {
-        return getClaimsFromToken(token).getSubject();
+    public JwtService(@Value("${jwt.secret}") String jwtSecret, RevocationList revocationList) {
+        this.verifier = new JwtVerifier(jwtSecret);
+        this.revocationList = revocationList;
     }
 
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+    /**
+     * Claims of a valid, unrevoked token; rejects never throw
+     */
+    public Optional<TokenClaims> verify(String token) {
+        VerificationResult result = verifier.check(token);
+        if (!result.isValid() || revocationList.isRevoked(result.claims().tokenId(), result.claims().expiresAt())) {
+            return Optional.empty();
         }
+        return Optional.of(result.claims());
     }
 
-    public Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String extractUsername(String token) {
+        return getClaimsFromToken(token).subject();
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public TokenClaims getClaimsFromToken(String token) {
+        return verifier.verify(token);
     }
 }
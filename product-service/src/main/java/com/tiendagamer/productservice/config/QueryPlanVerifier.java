@@ -0,0 +1,110 @@
+package com.tiendagamer.productservice.config;
+
+import com.tiendagamer.productservice.dto.ProductQuery;
+import com.tiendagamer.productservice.model.Product;
+import com.tiendagamer.productservice.repository.ProductRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Explains every query shape /products/public/query can produce once the
+ * indexes declared on {@link Product} exist, and logs any that would fall
+ * back to a collection scan. Runs off the startup thread so an unreachable
+ * Mongo does not hold up readiness.
+ */
+@Component
+@ConditionalOnProperty(name = "products.query.verify-plans", matchIfMissing = true)
+public class QueryPlanVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    private final ProductRepository productRepository;
+    private final String specKey;
+
+    public QueryPlanVerifier(
+            ProductRepository productRepository,
+            @Value("${products.query.spec-keys:brand,platform}") Set<String> specKeys) {
+        this.productRepository = productRepository;
+        this.specKey = specKeys.iterator().next();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyAsync() {
+        Thread.ofVirtual().name("product-query-plans").start(this::verify);
+    }
+
+    void verify() {
+        int checked = 0;
+        int scans = 0;
+        try {
+            for (ProductQuery query : shapes()) {
+                for (Product after : new Product[] {null, cursorAfter()}) {
+                    Document plan = productRepository.explain(query, after, 10);
+                    checked++;
+                    if (hasCollectionScan(plan.get("queryPlanner"))) {
+                        scans++;
+                        log.warn("Product query {} (after={}) runs a COLLSCAN", query, after != null);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not verify product query plans: {}", e.getMessage());
+            return;
+        }
+        if (scans == 0) {
+            log.info("All {} product query shapes are served by an index", checked);
+        }
+    }
+
+    private List<ProductQuery> shapes() {
+        List<ProductQuery> shapes = new ArrayList<>();
+        for (String category : new String[] {null, "gpu"}) {
+            for (boolean priceRange : new boolean[] {false, true}) {
+                for (boolean spec : new boolean[] {false, true}) {
+                    for (String sort : new String[] {"price", "-price", "name", "-name"}) {
+                        shapes.add(ProductQuery.builder()
+                                .category(category)
+                                .minPrice(priceRange ? 100 : null)
+                                .maxPrice(priceRange ? 1000 : null)
+                                .spec(spec ? List.of(specKey + ":x") : null)
+                                .sort(sort)
+                                .build());
+                    }
+                }
+            }
+        }
+        return shapes;
+    }
+
+    private static Product cursorAfter() {
+        Product after = new Product();
+        after.setId(new ObjectId().toHexString());
+        after.setPrice(500);
+        after.setName("m");
+        return after;
+    }
+
+    private static boolean hasCollectionScan(Object node) {
+        if (node instanceof Document document) {
+            if ("COLLSCAN".equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(QueryPlanVerifier::hasCollectionScan);
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(QueryPlanVerifier::hasCollectionScan);
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.tiendagamer.productservice.config;
 
+import com.tiendagamer.jwtcore.TokenClaims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,12 +22,17 @@ public class SecurityConfig {
         http.csrf(csrf -> csrf.disable());
 
         http.authorizeHttpRequests(auth -> auth
+            // Scraped with a SERVICE token; cache sizes and index stats are not public
+            .requestMatchers("/actuator/prometheus").hasRole(TokenClaims.SERVICE_ROLE)
             .requestMatchers(
                 "/products/public/**",
                 "/v3/api-docs/**",
                 "/swagger-ui/**",
                 "/swagger-ui.html",
-                "/swagger-ui/index.html"
+                "/swagger-ui/index.html",
+                "/actuator/health",
+                // Error dispatches carry no token; without this every 4xx turns into a 403
+                "/error"
             ).permitAll()
             .anyRequest().authenticated()
         );
@@ -1,26 +1,151 @@
 package com.tiendagamer.productservice.controller;
 
+import com.tiendagamer.productservice.dto.FacetCounts;
+import com.tiendagamer.productservice.dto.ImportReport;
+import com.tiendagamer.productservice.dto.ProductPage;
+import com.tiendagamer.productservice.dto.ProductQuery;
 import com.tiendagamer.productservice.dto.ProductRequest;
+import com.tiendagamer.productservice.dto.Suggestions;
 import jakarta.validation.Valid;
 import com.tiendagamer.productservice.model.Product;
+import com.tiendagamer.productservice.service.CatalogVersion;
+import com.tiendagamer.productservice.service.ProductExportService;
+import com.tiendagamer.productservice.service.ProductImportService;
+import com.tiendagamer.productservice.service.ProductImportService.Format;
 import com.tiendagamer.productservice.service.ProductService;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final CatalogVersion catalogVersion;
+
+    /**
+     * List products a page at a time; follow nextCursor until it is null
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ProductPage.class)))
+    public ResponseEntity<byte[]> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        return conditional(webRequest, () -> productService.getPage(cursor, limit));
+    }
 
-    @GetMapping
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("isAuthenticated()")
-    public List<Product> getAll() {
-        return productService.getAll();
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = Product.class)))
+    public ResponseEntity<byte[]> getById(@PathVariable String id, WebRequest webRequest) {
+        return conditional(webRequest, () -> productService.getById(id));
+    }
+
+    /**
+     * Full or incremental (?since=ISO-8601) catalog as NDJSON, gzipped when the
+     * client accepts it. Pass X-Export-Watermark as the next since; it trails
+     * the export start by products.export.watermark-lag, so products written
+     * around the export may be sent again. A write whose updatedAt lags its
+     * commit by more than that can still be missed.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("isAuthenticated()")
+    public void export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("X-Export-Watermark", productExportService.watermark().toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+            productExportService.export(since, compressed);
+            compressed.finish();
+        } else {
+            productExportService.export(since, out);
+        }
+    }
+
+    /**
+     * Public catalog search by category, price range and spec values, sorted
+     * by price or name (prefix - for descending); paged like GET /products
+     */
+    @GetMapping(value = "/public/query", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ProductPage.class)))
+    public ResponseEntity<byte[]> query(ProductQuery query, WebRequest webRequest) {
+        return conditional(webRequest, () -> productService.query(query));
+    }
+
+    /**
+     * Full-text search over name, description, category and specs, best match first
+     */
+    @GetMapping(value = "/public/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ProductPage.class)))
+    public ResponseEntity<byte[]> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        return conditional(webRequest, () -> productService.search(q, limit));
+    }
+
+    /**
+     * Typeahead for the search box: categories and products whose name has a
+     * word starting with q
+     */
+    @GetMapping("/public/suggest")
+    public Suggestions suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return productService.suggest(q, limit);
+    }
+
+    /**
+     * Facet counts for a category page; select facets with facet=key:value
+     */
+    @GetMapping("/public/facets")
+    public FacetCounts facets(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<String> facet) {
+        return productService.facets(category, facet);
     }
 
     @PostMapping
@@ -28,4 +153,42 @@ public class ProductController {
     public Product create(@Valid @RequestBody ProductRequest request) {
         return productService.create(request);
     }
+
+    /**
+     * Bulk load a supplier feed: a JSON array or NDJSON of products. The body
+     * is streamed; invalid items are reported, not fatal.
+     */
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, NDJSON })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportReport bulkImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? Format.NDJSON
+                : Format.JSON_ARRAY;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            return productImportService.importProducts(reader, format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Answers a matching If-None-Match with 304 before any query or
+     * serialization. The version is read before the body is built, so a body
+     * can only be newer than its ETag, never staler.
+     */
+    private ResponseEntity<byte[]> conditional(WebRequest webRequest, Supplier<byte[]> body) {
+        String etag = catalogVersion.etag();
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        byte[] json = body.get();
+        if (json == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Caches may keep the body but must revalidate it with the ETag
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(json);
+    }
 }
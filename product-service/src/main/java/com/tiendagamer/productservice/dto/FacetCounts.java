@@ -0,0 +1,22 @@
+package com.tiendagamer.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCounts {
+
+    // Products matching the category and every selected facet
+    private int total;
+
+    // spec key -> value -> products, most common value first. A key's counts
+    // apply the other keys' selections but not its own, so alternatives stay visible.
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,16 @@
+package com.tiendagamer.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportError {
+    // 1-based position in the array, or line number for NDJSON
+    private long item;
+    private String reason;
+}
@@ -0,0 +1,20 @@
+package com.tiendagamer.productservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+    private long imported;
+    private long rejected;
+    // Capped at products.import.max-reported-errors; rejected holds the full count
+    private List<ImportError> errors;
+    private long durationMillis;
+}
@@ -0,0 +1,21 @@
+package com.tiendagamer.productservice.dto;
+
+import com.tiendagamer.productservice.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPage {
+
+    private List<Product> items;
+
+    // Pass back as ?cursor= to get the next page; null on the last page
+    private String nextCursor;
+}
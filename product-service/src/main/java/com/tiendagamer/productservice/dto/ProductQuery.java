@@ -0,0 +1,67 @@
+package com.tiendagamer.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filters for /products/public/query, bound from request parameters
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductQuery {
+
+    private String category;
+
+    private Integer minPrice;
+    private Integer maxPrice;
+
+    // key:value pairs, e.g. spec=brand:asus; only keys in products.query.spec-keys
+    private List<String> spec;
+
+    // price, -price, name or -name; defaults to price
+    private String sort;
+
+    private String cursor;
+    private Integer limit;
+
+    /**
+     * Document field the results are ordered by
+     */
+    public String sortField() {
+        String field = sort == null || sort.isBlank() ? "price" : sort.startsWith("-") ? sort.substring(1) : sort;
+        if (!field.equals("price") && !field.equals("name")) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+        return field;
+    }
+
+    public boolean descending() {
+        return sort != null && sort.startsWith("-");
+    }
+
+    /**
+     * Spec filters as (key, value) pairs, all of which must match
+     */
+    public List<Map.Entry<String, String>> specFilters() {
+        if (spec == null) {
+            return List.of();
+        }
+        List<Map.Entry<String, String>> filters = new ArrayList<>(spec.size());
+        for (String filter : spec) {
+            int separator = filter.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Spec filter must be key:value, got " + filter);
+            }
+            filters.add(Map.entry(filter.substring(0, separator), filter.substring(separator + 1)));
+        }
+        return filters;
+    }
+}
@@ -0,0 +1,21 @@
+package com.tiendagamer.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestions {
+
+    // Matching categories, largest first
+    private List<String> categories;
+
+    // Products with a name word starting with the query, most expensive first
+    private List<ProductSuggestion> products;
+}
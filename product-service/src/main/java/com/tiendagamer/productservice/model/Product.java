@@ -2,13 +2,24 @@ package com.tiendagamer.productservice.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
 @Data
 @Document(collection = "products")
+// One index per query shape of ProductQueryRepository: [category,] sort field, _id tie-breaker
+@CompoundIndexes({
+        @CompoundIndex(name = "category_price", def = "{ 'category': 1, 'price': 1, '_id': 1 }"),
+        @CompoundIndex(name = "category_name", def = "{ 'category': 1, 'name': 1, '_id': 1 }"),
+        @CompoundIndex(name = "price", def = "{ 'price': 1, '_id': 1 }"),
+        @CompoundIndex(name = "name", def = "{ 'name': 1, '_id': 1 }")
+})
 public class Product {
 
     @Id
@@ -25,4 +36,8 @@ public class Product {
 
     // Flexible attributes
     private Map<String, Object> specs;
+
+    // Set on every write; drives incremental exports (?since=)
+    @Indexed
+    private Instant updatedAt;
 }
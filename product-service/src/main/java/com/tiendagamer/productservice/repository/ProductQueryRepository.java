@@ -0,0 +1,22 @@
+package com.tiendagamer.productservice.repository;
+
+import com.tiendagamer.productservice.dto.ProductQuery;
+import com.tiendagamer.productservice.model.Product;
+import org.bson.Document;
+
+import java.util.List;
+
+public interface ProductQueryRepository {
+
+    /**
+     * Up to {@code limit} matches after {@code after} in sort order, with only
+     * the id and the sort field loaded. {@code after} carries the id and sort
+     * value of the last product on the previous page, or is null.
+     */
+    List<Product> findPage(ProductQuery query, Product after, int limit);
+
+    /**
+     * Mongo's query plan for the same query findPage would run
+     */
+    Document explain(ProductQuery query, Product after, int limit);
+}
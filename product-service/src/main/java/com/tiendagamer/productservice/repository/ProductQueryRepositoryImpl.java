@@ -0,0 +1,104 @@
+package com.tiendagamer.productservice.repository;
+
+import com.tiendagamer.productservice.dto.ProductQuery;
+import com.tiendagamer.productservice.model.Product;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds product queries only in the shapes the indexes on {@link Product}
+ * serve: optional category equality, then the sort field, then _id as the
+ * keyset tie-breaker. Price ranges and spec filters narrow that scan.
+ */
+public class ProductQueryRepositoryImpl implements ProductQueryRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final Set<String> specKeys;
+
+    public ProductQueryRepositoryImpl(
+            MongoTemplate mongoTemplate,
+            @Value("${products.query.spec-keys:brand,platform}") Set<String> specKeys) {
+        this.mongoTemplate = mongoTemplate;
+        this.specKeys = specKeys;
+    }
+
+    @Override
+    public List<Product> findPage(ProductQuery query, Product after, int limit) {
+        return mongoTemplate.find(build(query, after, limit), Product.class);
+    }
+
+    @Override
+    public Document explain(ProductQuery query, Product after, int limit) {
+        Query mongoQuery = build(query, after, limit);
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .find(mongoQuery.getQueryObject())
+                .projection(mongoQuery.getFieldsObject())
+                .sort(mongoQuery.getSortObject())
+                .limit(limit)
+                .explain();
+    }
+
+    private Query build(ProductQuery query, Product after, int limit) {
+        String sortField = query.sortField();
+        boolean descending = query.descending();
+
+        List<Criteria> filters = new ArrayList<>();
+        if (query.getCategory() != null && !query.getCategory().isBlank()) {
+            filters.add(Criteria.where("category").is(query.getCategory()));
+        }
+        if (query.getMinPrice() != null || query.getMaxPrice() != null) {
+            Criteria price = Criteria.where("price");
+            if (query.getMinPrice() != null) {
+                price.gte(query.getMinPrice());
+            }
+            if (query.getMaxPrice() != null) {
+                price.lte(query.getMaxPrice());
+            }
+            filters.add(price);
+        }
+        for (Map.Entry<String, String> spec : query.specFilters()) {
+            filters.add(specFilter(spec.getKey(), spec.getValue()));
+        }
+        if (after != null) {
+            Object value = sortField.equals("price") ? after.getPrice() : after.getName();
+            ObjectId id = new ObjectId(after.getId());
+            filters.add(new Criteria().orOperator(
+                    descending ? Criteria.where(sortField).lt(value) : Criteria.where(sortField).gt(value),
+                    new Criteria().andOperator(
+                            Criteria.where(sortField).is(value),
+                            descending ? Criteria.where("_id").lt(id) : Criteria.where("_id").gt(id))));
+        }
+
+        Query mongoQuery = filters.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(filters));
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        mongoQuery.with(Sort.by(direction, sortField, "_id"));
+        mongoQuery.fields().include("_id", sortField);
+        return mongoQuery.limit(limit);
+    }
+
+    private Criteria specFilter(String key, String value) {
+        if (!specKeys.contains(key)) {
+            throw new IllegalArgumentException("Filtering on spec " + key + " is not supported");
+        }
+        // Specs are schemaless: "16" should also match a stored number
+        List<Object> values = new ArrayList<>(List.of(value));
+        try {
+            values.add(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            // only the string form
+        }
+        return Criteria.where("specs." + key).in(values);
+    }
+}
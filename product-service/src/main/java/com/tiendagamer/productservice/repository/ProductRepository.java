@@ -1,8 +1,19 @@
 package com.tiendagamer.productservice.repository;
 
 import com.tiendagamer.productservice.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
-public interface ProductRepository extends MongoRepository<Product, String> {
+import java.util.List;
 
+public interface ProductRepository extends MongoRepository<Product, String>, ProductQueryRepository {
+
+    // Keyset pagination on _id: both use the _id index and never skip. Only the
+    // ids come back (covered by the index); the bodies come from ProductCache.
+    @Query(fields = "{ '_id': 1 }")
+    List<Product> findAllByOrderByIdAsc(Limit limit);
+
+    @Query(fields = "{ '_id': 1 }")
+    List<Product> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
 }
@@ -0,0 +1,15 @@
+package com.tiendagamer.productservice.search;
+
+import com.tiendagamer.productservice.model.Product;
+
+/**
+ * An in-memory read model of the catalog, kept current by {@link CatalogIndexLoader}
+ */
+public interface CatalogIndex {
+
+    /**
+     * Adds the product, replacing any earlier version with the same id.
+     * Calls are serialized by the loader; readers may run concurrently.
+     */
+    void index(Product product);
+}
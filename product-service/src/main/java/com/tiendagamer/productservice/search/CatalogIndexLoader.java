@@ -0,0 +1,146 @@
+package com.tiendagamer.productservice.search;
+
+import com.tiendagamer.productservice.model.Product;
+import com.tiendagamer.productservice.service.CatalogVersion;
+import com.tiendagamer.productservice.service.ProductSavedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Feeds every {@link CatalogIndex}: one pass over the catalog at startup
+ * (retried until Mongo answers), local writes as they happen, and other
+ * instances' writes by polling the updatedAt index. A product is handed on
+ * only when it is newer than the version already indexed, so overlapping
+ * sources are harmless. The local {@link CatalogVersion} only advances once
+ * the indexes hold everything that version covers.
+ */
+@Component
+public class CatalogIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIndexLoader.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogVersion catalogVersion;
+    private final List<CatalogIndex> indexes;
+    private final Duration clockSkew;
+
+    // Held while a product is handed to every index, which can include a trie
+    // rebuild or a compaction; a lock so waiting virtual threads stay unmounted
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // updatedAt of the version each index holds, by product id
+    private final Map<String, Instant> indexed = new HashMap<>();
+    private Instant watermark = Instant.EPOCH;
+    private volatile boolean loaded;
+
+    public CatalogIndexLoader(
+            MongoTemplate mongoTemplate,
+            CatalogVersion catalogVersion,
+            List<CatalogIndex> indexes,
+            @Value("${products.index.clock-skew:5s}") Duration clockSkew) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogVersion = catalogVersion;
+        this.indexes = indexes;
+        this.clockSkew = clockSkew;
+    }
+
+    /**
+     * Whether the indexes have seen the whole catalog at least once
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @EventListener
+    public void onProductSaved(ProductSavedEvent event) {
+        event.products().forEach(this::apply);
+    }
+
+    /**
+     * Loads the whole catalog on the first run, then picks up products written
+     * by other instances. Each poll reaches back by the allowed clock skew, so
+     * a write stamped slightly in the past by a lagging clock is still seen.
+     */
+    @Scheduled(fixedDelayString = "${products.index.sync-interval:1s}")
+    public void sync() {
+        try {
+            catalogVersion.settle();
+            // Read first: every write this version counts is visible to the query below
+            long version = catalogVersion.fetch();
+            if (loaded) {
+                catchUp();
+            } else {
+                load();
+                loaded = true;
+            }
+            catalogVersion.advanceTo(version);
+        } catch (DataAccessException e) {
+            // Keep serving what is indexed; the next poll retries
+            log.debug("Catalog index sync failed: {}", e.getMessage());
+        }
+    }
+
+    private void load() {
+        long started = System.nanoTime();
+        long count = 0;
+        try (Stream<Product> products = mongoTemplate.stream(new Query(), Product.class)) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                apply(product);
+                count++;
+            }
+        }
+        log.info("Indexed {} products into {} catalog indexes in {} ms",
+                count, indexes.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void catchUp() {
+        Instant since;
+        lock.lock();
+        try {
+            since = watermark.minus(clockSkew);
+        } finally {
+            lock.unlock();
+        }
+        try (Stream<Product> products = mongoTemplate.stream(
+                Query.query(Criteria.where("updatedAt").gte(since)), Product.class)) {
+            products.forEach(this::apply);
+        }
+    }
+
+    private void apply(Product product) {
+        Instant updatedAt = product.getUpdatedAt();
+        lock.lock();
+        try {
+            Instant previous = indexed.get(product.getId());
+            if (indexed.containsKey(product.getId())
+                    && (updatedAt == null || previous != null && !updatedAt.isAfter(previous))) {
+                return;
+            }
+            indexed.put(product.getId(), updatedAt);
+            if (updatedAt != null && updatedAt.isAfter(watermark)) {
+                watermark = updatedAt;
+            }
+            for (CatalogIndex index : indexes) {
+                index.index(product);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.tiendagamer.productservice.search;
+
+import com.tiendagamer.productservice.dto.ProductQuery;
+import com.tiendagamer.productservice.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Column-per-field copy of the catalog for /products/public/query: prices in
+ * an int[], categories and spec values dictionary-encoded into int ids, and
+ * the docs pre-sorted by (price, _id) and (name, _id). A query walks one sort
+ * order, tests primitives and stops after the page; only the page becomes
+ * Product objects. Writes go to a staging map and the next read after a
+ * change rebuilds the columns into a new immutable snapshot, so a bulk load
+ * pays for one rebuild rather than one per product.
+ */
+@Component
+public class CatalogSnapshot implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    private static final int NO_PRICE = Integer.MIN_VALUE;
+
+    /**
+     * One product as staged for the next rebuild; specs[k] holds the values
+     * of the k-th spec key
+     */
+    private record Row(String id, int price, String name, String category, String[][] specs) {
+    }
+
+    /**
+     * Immutable columns; doc ids are positions in _id order
+     */
+    private record Columns(
+            long version,
+            String[] ids,
+            int[] prices,
+            String[] names,
+            int[] categoryIds,
+            Map<String, Integer> categoryDictionary,
+            // Per spec key: values of doc d are values[offsets[d]] .. values[offsets[d + 1] - 1]
+            int[][] specOffsets,
+            int[][] specValues,
+            List<Map<String, Integer>> specDictionaries,
+            int[] byPrice,
+            int[] byName) {
+    }
+
+    private final String[] specKeys;
+    private final Map<String, Integer> specKeyIndex = new HashMap<>();
+
+    // Guards rows and rebuilds; a lock rather than a monitor so a virtual
+    // thread waiting out a rebuild does not pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Row> rows = new HashMap<>();
+    private volatile long changes;
+    private volatile Columns columns;
+
+    public CatalogSnapshot(@Value("${products.query.spec-keys:brand,platform}") Set<String> specKeys) {
+        this.specKeys = specKeys.stream().map(String::intern).toArray(String[]::new);
+        for (int i = 0; i < this.specKeys.length; i++) {
+            specKeyIndex.put(this.specKeys[i], i);
+        }
+        this.columns = build(List.of(), 0);
+    }
+
+    @Override
+    public void index(Product product) {
+        String[][] specs = new String[specKeys.length][];
+        for (int k = 0; k < specKeys.length; k++) {
+            Object value = product.getSpecs() != null ? product.getSpecs().get(specKeys[k]) : null;
+            specs[k] = specStrings(value);
+        }
+        Row row = new Row(product.getId(),
+                product.getPrice() != null ? product.getPrice() : NO_PRICE,
+                product.getName() != null ? product.getName() : "",
+                product.getCategory(),
+                specs);
+        lock.lock();
+        try {
+            rows.put(product.getId(), row);
+            changes++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Same contract as ProductQueryRepository#findPage: up to {@code limit}
+     * matches after {@code after} in sort order, with id, price and name set
+     */
+    public List<Product> findPage(ProductQuery query, Product after, int limit) {
+        String sortField = query.sortField();
+        boolean descending = query.descending();
+        boolean byPrice = sortField.equals("price");
+
+        List<Map.Entry<String, String>> filters = query.specFilters();
+        int[] filterKeys = new int[filters.size()];
+        int[] filterValues = new int[filters.size()];
+        for (int i = 0; i < filters.size(); i++) {
+            Integer key = specKeyIndex.get(filters.get(i).getKey());
+            if (key == null) {
+                throw new IllegalArgumentException("Filtering on spec " + filters.get(i).getKey() + " is not supported");
+            }
+            filterKeys[i] = key;
+        }
+
+        Columns c = current();
+        for (int i = 0; i < filters.size(); i++) {
+            Integer value = c.specDictionaries().get(filterKeys[i]).get(filters.get(i).getValue());
+            if (value == null) {
+                return List.of(); // no product has that value
+            }
+            filterValues[i] = value;
+        }
+        int category = -1;
+        if (query.getCategory() != null && !query.getCategory().isBlank()) {
+            Integer id = c.categoryDictionary().get(query.getCategory());
+            if (id == null) {
+                return List.of();
+            }
+            category = id;
+        }
+        boolean priceRange = query.getMinPrice() != null || query.getMaxPrice() != null;
+        int minPrice = query.getMinPrice() != null ? query.getMinPrice() : NO_PRICE;
+        int maxPrice = query.getMaxPrice() != null ? query.getMaxPrice() : Integer.MAX_VALUE;
+
+        int[] order = byPrice ? c.byPrice() : c.byName();
+        int n = order.length;
+        int start = after == null ? 0 : firstAfter(c, order, byPrice, descending, after);
+
+        List<Product> page = new ArrayList<>(Math.min(limit, 64));
+        for (int i = start; i < n && page.size() < limit; i++) {
+            int doc = order[descending ? n - 1 - i : i];
+            if (category >= 0 && c.categoryIds()[doc] != category) {
+                continue;
+            }
+            int price = c.prices()[doc];
+            if (price < minPrice || price > maxPrice || (price == NO_PRICE && priceRange)) {
+                continue;
+            }
+            if (!specsMatch(c, doc, filterKeys, filterValues)) {
+                continue;
+            }
+            Product product = new Product();
+            product.setId(c.ids()[doc]);
+            product.setPrice(price != NO_PRICE ? price : null);
+            product.setName(c.names()[doc]);
+            page.add(product);
+        }
+        return page;
+    }
+
+    private Columns current() {
+        Columns snapshot = columns;
+        if (snapshot.version() == changes) {
+            return snapshot;
+        }
+        lock.lock();
+        try {
+            if (columns.version() != changes) {
+                long started = System.nanoTime();
+                columns = build(rows.values(), changes);
+                log.debug("Rebuilt catalog snapshot of {} products in {} µs",
+                        rows.size(), (System.nanoTime() - started) / 1_000);
+            }
+            return columns;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Logical position of the first doc that sorts after {@code after}; the
+     * order array is read back to front for descending queries
+     */
+    private static int firstAfter(Columns c, int[] order, boolean byPrice, boolean descending, Product after) {
+        int afterPrice = after.getPrice() != null ? after.getPrice() : NO_PRICE;
+        String afterName = after.getName() != null ? after.getName() : "";
+        String afterId = after.getId();
+        int n = order.length;
+        IntPredicate isAfter = i -> {
+            int doc = order[descending ? n - 1 - i : i];
+            int compare = byPrice
+                    ? Integer.compare(c.prices()[doc], afterPrice)
+                    : c.names()[doc].compareTo(afterName);
+            if (compare == 0) {
+                compare = c.ids()[doc].compareTo(afterId);
+            }
+            return descending ? compare < 0 : compare > 0;
+        };
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (isAfter.test(mid)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static boolean specsMatch(Columns c, int doc, int[] keys, int[] values) {
+        for (int f = 0; f < keys.length; f++) {
+            int[] offsets = c.specOffsets()[keys[f]];
+            int[] docValues = c.specValues()[keys[f]];
+            boolean found = false;
+            for (int v = offsets[doc]; v < offsets[doc + 1]; v++) {
+                if (docValues[v] == values[f]) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Columns build(Collection<Row> staged, long version) {
+        // ObjectId hex sorts like the ObjectId, so doc order is _id order
+        Row[] sorted = staged.toArray(new Row[0]);
+        Arrays.sort(sorted, (a, b) -> a.id().compareTo(b.id()));
+        int n = sorted.length;
+
+        String[] ids = new String[n];
+        int[] prices = new int[n];
+        String[] names = new String[n];
+        int[] categoryIds = new int[n];
+        Map<String, Integer> categoryDictionary = new HashMap<>();
+        for (int d = 0; d < n; d++) {
+            Row row = sorted[d];
+            ids[d] = row.id();
+            prices[d] = row.price();
+            names[d] = row.name();
+            categoryIds[d] = row.category() == null
+                    ? -1
+                    : categoryDictionary.computeIfAbsent(row.category(), key -> categoryDictionary.size());
+        }
+
+        int[][] specOffsets = new int[specKeys.length][];
+        int[][] specValues = new int[specKeys.length][];
+        List<Map<String, Integer>> specDictionaries = new ArrayList<>(specKeys.length);
+        for (int k = 0; k < specKeys.length; k++) {
+            Map<String, Integer> dictionary = new HashMap<>();
+            int[] offsets = new int[n + 1];
+            int total = 0;
+            for (int d = 0; d < n; d++) {
+                offsets[d] = total;
+                total += sorted[d].specs()[k].length;
+            }
+            offsets[n] = total;
+            int[] values = new int[total];
+            for (int d = 0; d < n; d++) {
+                String[] docValues = sorted[d].specs()[k];
+                for (int v = 0; v < docValues.length; v++) {
+                    values[offsets[d] + v] = dictionary.computeIfAbsent(docValues[v], key -> dictionary.size());
+                }
+            }
+            specOffsets[k] = offsets;
+            specValues[k] = values;
+            specDictionaries.add(dictionary);
+        }
+
+        // (sort key << 32 | doc) sorts by key, then by doc, i.e. by _id
+        long[] keys = new long[n];
+        for (int d = 0; d < n; d++) {
+            keys[d] = ((long) prices[d] << 32) | d;
+        }
+        int[] byPrice = docsInKeyOrder(keys);
+
+        String[] distinctNames = Arrays.stream(names).distinct().sorted().toArray(String[]::new);
+        for (int d = 0; d < n; d++) {
+            keys[d] = ((long) Arrays.binarySearch(distinctNames, names[d]) << 32) | d;
+        }
+        int[] byName = docsInKeyOrder(keys);
+
+        return new Columns(version, ids, prices, names, categoryIds, categoryDictionary,
+                specOffsets, specValues, specDictionaries, byPrice, byName);
+    }
+
+    private static int[] docsInKeyOrder(long[] keys) {
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int[] docs = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            docs[i] = (int) sorted[i];
+        }
+        return docs;
+    }
+
+    private static String[] specStrings(Object value) {
+        if (value instanceof Collection<?> list) {
+            return list.stream()
+                    .filter(item -> item != null && !(item instanceof Map<?, ?>))
+                    .map(Object::toString)
+                    .toArray(String[]::new);
+        }
+        if (value == null || value instanceof Map<?, ?>) {
+            return new String[0];
+        }
+        return new String[] {value.toString()};
+    }
+}
@@ -0,0 +1,249 @@
+package com.tiendagamer.productservice.search;
+
+import com.tiendagamer.productservice.dto.FacetCounts;
+import com.tiendagamer.productservice.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facet counts over the spec keys in products.facets.keys. Keeps a bitset of
+ * internal doc ids per category and per (key, value), plus running counts per
+ * (category, key, value) so an unfiltered category page is a map copy.
+ * Selected facets are answered by intersecting bitsets. Keys outside the
+ * allow-list and values past products.facets.max-values per key are not
+ * indexed, so arbitrary specs cannot grow memory without bound.
+ */
+@Component
+public class FacetIndex implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FacetIndex.class);
+
+    private record Doc(String category, Map<String, Set<String>> values) {
+    }
+
+    private final Set<String> keys;
+    private final int maxValues;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docByProduct = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final Map<String, Map<String, BitSet>> byValue = new HashMap<>();
+    private final Map<String, Map<String, Map<String, Integer>>> counts = new HashMap<>();
+    private final Set<String> cappedKeys = new LinkedHashSet<>();
+
+    public FacetIndex(
+            @Value("${products.facets.keys:brand,vram,socket,switch}") Set<String> keys,
+            @Value("${products.facets.max-values:500}") int maxValues) {
+        this.keys = keys;
+        this.maxValues = maxValues;
+    }
+
+    /**
+     * Re-indexing a product reuses its doc id: its old bits and counts are
+     * removed before the new ones are added.
+     */
+    @Override
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByProduct.get(product.getId());
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                remove(doc, docs.get(doc));
+            } else {
+                doc = docs.size();
+                docs.add(null);
+                docByProduct.put(product.getId(), doc);
+            }
+            Doc indexed = new Doc(product.getCategory(), facetValues(product));
+            docs.set(doc, indexed);
+            add(doc, indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts within the category (all products when null) after applying the
+     * selected values, given as key to values; values of one key are OR-ed
+     */
+    public FacetCounts count(String category, Map<String, Set<String>> selected) {
+        for (String key : selected.keySet()) {
+            if (!keys.contains(key)) {
+                throw new IllegalArgumentException("Faceting on spec " + key + " is not supported");
+            }
+        }
+        lock.readLock().lock();
+        try {
+            BitSet scope = category != null ? byCategory.getOrDefault(category, new BitSet()) : live;
+            if (selected.isEmpty() && category != null) {
+                return FacetCounts.builder()
+                        .total(scope.cardinality())
+                        .facets(sorted(counts.getOrDefault(category, Map.of())))
+                        .build();
+            }
+
+            Map<String, BitSet> selections = new HashMap<>();
+            selected.forEach((key, values) -> selections.put(key, union(key, values)));
+
+            BitSet matching = (BitSet) scope.clone();
+            selections.values().forEach(matching::and);
+
+            Map<String, Map<String, Integer>> facets = new HashMap<>();
+            for (String key : keys) {
+                BitSet base = (BitSet) scope.clone();
+                selections.forEach((other, bits) -> {
+                    if (!other.equals(key)) {
+                        base.and(bits);
+                    }
+                });
+                Map<String, Integer> valueCounts = new HashMap<>();
+                byValue.getOrDefault(key, Map.of()).forEach((value, bits) -> {
+                    BitSet both = (BitSet) base.clone();
+                    both.and(bits);
+                    int count = both.cardinality();
+                    if (count > 0) {
+                        valueCounts.put(value, count);
+                    }
+                });
+                if (!valueCounts.isEmpty()) {
+                    facets.put(key, valueCounts);
+                }
+            }
+            return FacetCounts.builder()
+                    .total(matching.cardinality())
+                    .facets(sorted(facets))
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet union(String key, Set<String> values) {
+        BitSet union = new BitSet();
+        Map<String, BitSet> byKey = byValue.getOrDefault(key, Map.of());
+        for (String value : values) {
+            BitSet bits = byKey.get(value);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    private void add(int doc, Doc indexed) {
+        live.set(doc);
+        if (indexed.category() != null) {
+            byCategory.computeIfAbsent(indexed.category(), c -> new BitSet()).set(doc);
+        }
+        indexed.values().forEach((key, values) -> {
+            Map<String, BitSet> byKey = byValue.computeIfAbsent(key, k -> new HashMap<>());
+            for (String value : values) {
+                BitSet bits = byKey.get(value);
+                if (bits == null) {
+                    if (byKey.size() >= maxValues) {
+                        if (cappedKeys.add(key)) {
+                            log.warn("Spec {} has more than {} distinct values; further values are not faceted",
+                                    key, maxValues);
+                        }
+                        continue;
+                    }
+                    bits = new BitSet();
+                    byKey.put(value, bits);
+                }
+                bits.set(doc);
+                if (indexed.category() != null) {
+                    counts.computeIfAbsent(indexed.category(), c -> new HashMap<>())
+                            .computeIfAbsent(key, k -> new HashMap<>())
+                            .merge(value, 1, Integer::sum);
+                }
+            }
+        });
+    }
+
+    private void remove(int doc, Doc indexed) {
+        live.clear(doc);
+        if (indexed.category() != null) {
+            byCategory.get(indexed.category()).clear(doc);
+        }
+        indexed.values().forEach((key, values) -> {
+            Map<String, BitSet> byKey = byValue.get(key);
+            for (String value : values) {
+                BitSet bits = byKey.get(value);
+                if (bits == null || !bits.get(doc)) {
+                    continue; // was over the cap
+                }
+                bits.clear(doc);
+                if (indexed.category() != null) {
+                    Map<String, Integer> valueCounts = counts.get(indexed.category()).get(key);
+                    if (valueCounts.merge(value, -1, Integer::sum) == 0) {
+                        valueCounts.remove(value);
+                    }
+                }
+            }
+        });
+    }
+
+    private Map<String, Set<String>> facetValues(Product product) {
+        Map<String, Set<String>> values = new HashMap<>();
+        if (product.getSpecs() == null) {
+            return values;
+        }
+        for (String key : keys) {
+            Object value = product.getSpecs().get(key);
+            Set<String> strings = new LinkedHashSet<>();
+            if (value instanceof Collection<?> list) {
+                list.forEach(item -> addValue(item, strings));
+            } else {
+                addValue(value, strings);
+            }
+            if (!strings.isEmpty()) {
+                values.put(key, strings);
+            }
+        }
+        return values;
+    }
+
+    private static void addValue(Object value, Set<String> strings) {
+        // Nested objects have no single value to count
+        if (value != null && !(value instanceof Map<?, ?>)) {
+            String string = value.toString().trim();
+            if (!string.isEmpty()) {
+                strings.add(string);
+            }
+        }
+    }
+
+    private static Map<String, Map<String, Integer>> sorted(Map<String, Map<String, Integer>> facets) {
+        Map<String, Map<String, Integer>> sorted = new LinkedHashMap<>();
+        facets.keySet().stream().sorted().forEach(key -> {
+            Map<String, Integer> values = new LinkedHashMap<>();
+            facets.get(key).entrySet().stream()
+                    .filter(e -> e.getValue() > 0)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(e -> values.put(e.getKey(), e.getValue()));
+            if (!values.isEmpty()) {
+                sorted.put(key, values);
+            }
+        });
+        return sorted;
+    }
+}
@@ -0,0 +1,266 @@
+package com.tiendagamer.productservice.search;
+
+import com.tiendagamer.productservice.model.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over product name, description, category and spec values,
+ * ranked with BM25. Products get dense internal doc ids in the order they are
+ * indexed, so every posting list is an append-only sorted int array. A
+ * re-indexed product gets a new doc id and its old one is tombstoned; once
+ * tombstones pass products.search.max-dead-ratio of the live docs, the index
+ * is compacted so re-indexing cannot grow it without bound.
+ */
+@Component
+public class SearchIndex implements CatalogIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // A name match counts like the term appearing this many times
+    private static final int NAME_WEIGHT = 3;
+    private static final int MIN_CAPACITY = 1024;
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docByProduct = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private String[] productByDoc = new String[MIN_CAPACITY];
+    private int[] docLength = new int[MIN_CAPACITY];
+    private int docCount;
+    private int liveDocs;
+    private long liveLength;
+
+    private final double maxDeadRatio;
+    private final Timer searchTimer;
+
+    public SearchIndex(
+            MeterRegistry meterRegistry,
+            @Value("${products.search.max-dead-ratio:0.25}") double maxDeadRatio) {
+        this.maxDeadRatio = maxDeadRatio;
+        this.searchTimer = Timer.builder("products.search")
+                .description("Time to rank a search query against the in-memory index")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("products.search.documents", this, index -> index.liveDocs)
+                .register(meterRegistry);
+        Gauge.builder("products.search.tombstones", this, index -> index.docCount - index.liveDocs)
+                .description("Replaced documents still in the posting lists until the next compaction")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void index(Product product) {
+        Map<String, Integer> frequencies = termFrequencies(product);
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = docByProduct.get(product.getId());
+            if (previous != null) {
+                deleted.set(previous);
+                liveDocs--;
+                liveLength -= docLength[previous];
+            }
+            int doc = docCount++;
+            if (doc == productByDoc.length) {
+                productByDoc = Arrays.copyOf(productByDoc, doc * 2);
+                docLength = Arrays.copyOf(docLength, doc * 2);
+            }
+            productByDoc[doc] = product.getId();
+            docLength[doc] = length;
+            docByProduct.put(product.getId(), doc);
+            frequencies.forEach((term, freq) -> postings.computeIfAbsent(term, t -> new Postings()).add(doc, freq));
+            liveDocs++;
+            liveLength += length;
+            if (docCount - liveDocs > liveDocs * maxDeadRatio) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Renumbers the live docs in their current order, which keeps ties going to
+     * the older product, and drops tombstoned postings and terms nobody has left.
+     */
+    private void compact() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = next;
+                productByDoc[next] = productByDoc[doc];
+                docLength[next] = docLength[doc];
+                docByProduct.put(productByDoc[next], next);
+                next++;
+            }
+        }
+        Arrays.fill(productByDoc, next, docCount, null);
+        if (productByDoc.length > MIN_CAPACITY && next < productByDoc.length / 4) {
+            int capacity = Math.max(MIN_CAPACITY, next * 2);
+            productByDoc = Arrays.copyOf(productByDoc, capacity);
+            docLength = Arrays.copyOf(docLength, capacity);
+        }
+
+        Iterator<Postings> lists = postings.values().iterator();
+        while (lists.hasNext()) {
+            Postings list = lists.next();
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int doc = remap[list.docs[i]];
+                if (doc >= 0) {
+                    list.docs[kept] = doc;
+                    list.freqs[kept] = list.freqs[i];
+                    kept++;
+                }
+            }
+            list.size = kept;
+            if (kept == 0) {
+                lists.remove();
+            } else if (kept < list.docs.length / 4) {
+                list.docs = Arrays.copyOf(list.docs, kept * 2);
+                list.freqs = Arrays.copyOf(list.freqs, kept * 2);
+            }
+        }
+        docCount = next;
+        deleted.clear();
+    }
+
+    /**
+     * Ids of the best matches for the query text, best first. A product only
+     * needs to match one term; matching more of them ranks it higher.
+     */
+    public List<String> search(String text, int limit) {
+        return searchTimer.record(() -> rank(Tokenizer.words(text), limit));
+    }
+
+    private List<String> rank(List<String> words, int limit) {
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0 || words.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            // "16gb" only falls back to "16" and "gb" when nothing has the whole word
+            Set<String> terms = new LinkedHashSet<>();
+            for (String word : words) {
+                if (postings.containsKey(word)) {
+                    terms.add(word);
+                } else {
+                    terms.addAll(Tokenizer.parts(word));
+                }
+            }
+            float averageLength = (float) liveLength / liveDocs;
+            float[] scores = new float[docCount];
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                // Document frequency over live docs only; tombstones are still in the list
+                int frequency = 0;
+                for (int i = 0; i < list.size; i++) {
+                    if (!deleted.get(list.docs[i])) {
+                        frequency++;
+                    }
+                }
+                float idf = (float) Math.log(1 + (liveDocs - frequency + 0.5) / (frequency + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (deleted.get(doc)) {
+                        continue;
+                    }
+                    int tf = list.freqs[i];
+                    float norm = K1 * (1 - B + B * docLength[doc] / averageLength);
+                    scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+
+            // Min-heap of the best `limit` docs; ties go to the older product
+            PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1,
+                    (a, b) -> scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(b, a));
+            for (int doc = 0; doc < scores.length; doc++) {
+                if (scores[doc] > 0) {
+                    top.add(doc);
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+            String[] ids = new String[top.size()];
+            for (int i = ids.length - 1; i >= 0; i--) {
+                ids[i] = productByDoc[top.poll()];
+            }
+            return List.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> termFrequencies(Product product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : Tokenizer.tokens(product.getName())) {
+            frequencies.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        List<String> text = new ArrayList<>();
+        text.add(product.getDescription());
+        text.add(product.getCategory());
+        if (product.getSpecs() != null) {
+            collectValues(product.getSpecs().values(), text);
+        }
+        for (String value : text) {
+            for (String token : Tokenizer.tokens(value)) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+        }
+        return frequencies;
+    }
+
+    private static void collectValues(Collection<?> values, List<String> text) {
+        for (Object value : values) {
+            if (value instanceof Map<?, ?> nested) {
+                collectValues(nested.values(), text);
+            } else if (value instanceof Collection<?> list) {
+                collectValues(list, text);
+            } else if (value != null) {
+                text.add(value.toString());
+            }
+        }
+    }
+}
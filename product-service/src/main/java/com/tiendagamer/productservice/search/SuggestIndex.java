@@ -0,0 +1,313 @@
+package com.tiendagamer.productservice.search;
+
+import com.tiendagamer.productservice.dto.ProductSuggestion;
+import com.tiendagamer.productservice.dto.Suggestions;
+import com.tiendagamer.productservice.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Typeahead over product names and categories in a radix trie. Every word of
+ * a name starts a key ("rtx 4070" is reachable as "rtx..." and "4070..."),
+ * and every node keeps its own top-K products by price and categories by
+ * product count, so a lookup is one walk down the trie with nothing to sort.
+ * Nodes are copy-on-write behind volatile fields: readers take no lock and
+ * see either the old or the new version of a node.
+ */
+@Component
+public class SuggestIndex implements CatalogIndex {
+
+    /**
+     * A suggestion as stored in the trie; immutable so it can be shared
+     * between the top-K arrays of many nodes
+     */
+    private record Entry(String key, String text, String productId, Integer price, long score) {
+    }
+
+    /**
+     * Outgoing edges sorted by the first character of their label; replaced
+     * as a whole so labels and children are always read as a pair
+     */
+    private record Edges(String[] labels, Node[] children) {
+    }
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Edges NO_EDGES = new Edges(new String[0], new Node[0]);
+
+    private static final class Node {
+        volatile Edges edges = NO_EDGES;
+        volatile Entry[] products = NO_ENTRIES;
+        volatile Entry[] categories = NO_ENTRIES;
+    }
+
+    private final int topK;
+    private final Timer suggestTimer;
+
+    private volatile Node root = new Node();
+    // What is indexed for every product; the source for rebuilds
+    private final Map<String, Entry> products = new HashMap<>();
+    private final Map<String, String> categoryByProduct = new HashMap<>();
+    private final Map<String, Long> categorySizes = new HashMap<>();
+
+    public SuggestIndex(
+            MeterRegistry meterRegistry,
+            @Value("${products.suggest.top-k:10}") int topK) {
+        this.topK = topK;
+        this.suggestTimer = Timer.builder("products.suggest")
+                .description("Time to answer a typeahead lookup")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void index(Product product) {
+        String category = product.getCategory() != null && !product.getCategory().isBlank()
+                ? product.getCategory()
+                : null;
+        Entry entry = new Entry(product.getId(), product.getName(), product.getId(), product.getPrice(),
+                product.getPrice() != null ? product.getPrice() : 0);
+        Entry previous = products.put(product.getId(), entry);
+        String previousCategory = categoryByProduct.put(product.getId(), category);
+        if (previous != null) {
+            if (!Objects.equals(previous.text(), entry.text()) || !Objects.equals(previous.price(), entry.price())
+                    || !Objects.equals(previousCategory, category)) {
+                // A top-K list cannot drop an entry without rescanning its subtree; changes are rare
+                rebuild();
+            }
+            return;
+        }
+        insertProduct(root, entry);
+        if (category != null) {
+            insertCategory(root, category, categorySizes.merge(category, 1L, Long::sum));
+        }
+    }
+
+    /**
+     * Suggestions for what the user has typed so far
+     */
+    public Suggestions suggest(String query, int limit) {
+        return suggestTimer.record(() -> {
+            Node node = find(queryKey(query));
+            if (node == null) {
+                return Suggestions.builder().categories(List.of()).products(List.of()).build();
+            }
+            Entry[] categories = node.categories;
+            Entry[] products = node.products;
+            List<String> categoryNames = new ArrayList<>(Math.min(limit, categories.length));
+            for (int i = 0; i < categories.length && i < limit; i++) {
+                categoryNames.add(categories[i].text());
+            }
+            List<ProductSuggestion> productSuggestions = new ArrayList<>(Math.min(limit, products.length));
+            for (int i = 0; i < products.length && i < limit; i++) {
+                Entry entry = products[i];
+                productSuggestions.add(ProductSuggestion.builder()
+                        .id(entry.productId())
+                        .name(entry.text())
+                        .price(entry.price())
+                        .build());
+            }
+            return Suggestions.builder().categories(categoryNames).products(productSuggestions).build();
+        });
+    }
+
+    private Node find(String prefix) {
+        if (prefix.isEmpty()) {
+            return null;
+        }
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            Edges edges = node.edges;
+            int child = childIndex(edges.labels(), prefix.charAt(position));
+            if (child < 0) {
+                return null;
+            }
+            String label = edges.labels()[child];
+            int length = Math.min(label.length(), prefix.length() - position);
+            if (!prefix.regionMatches(position, label, 0, length)) {
+                return null;
+            }
+            // A prefix ending inside an edge shares everything below it
+            node = edges.children()[child];
+            position += length;
+        }
+        return node;
+    }
+
+    private void insertProduct(Node root, Entry entry) {
+        String name = key(entry.text());
+        for (int start = 0; start < name.length(); start++) {
+            if (start == 0 || name.charAt(start - 1) == ' ') {
+                insert(root, name.substring(start), entry, false);
+            }
+        }
+    }
+
+    private void insertCategory(Node root, String category, long size) {
+        String key = key(category);
+        if (!key.isEmpty()) {
+            insert(root, key, new Entry("category:" + category, category, null, null, size), true);
+        }
+    }
+
+    private void insert(Node node, String key, Entry entry, boolean category) {
+        int position = 0;
+        while (position < key.length()) {
+            Edges edges = node.edges;
+            int child = childIndex(edges.labels(), key.charAt(position));
+            if (child < 0) {
+                Node leaf = new Node();
+                offer(leaf, entry, category);
+                addChild(node, key.substring(position), leaf);
+                return;
+            }
+            String label = edges.labels()[child];
+            int common = commonPrefix(label, key, position);
+            Node next = edges.children()[child];
+            if (common < label.length()) {
+                // Split the edge: the new middle node starts with everything the old child had
+                Node middle = new Node();
+                middle.edges = new Edges(new String[] {label.substring(common)}, new Node[] {next});
+                middle.products = next.products;
+                middle.categories = next.categories;
+                replaceChild(node, child, label.substring(0, common), middle);
+                next = middle;
+            }
+            offer(next, entry, category);
+            node = next;
+            position += common;
+        }
+    }
+
+    private void offer(Node node, Entry entry, boolean category) {
+        Entry[] current = category ? node.categories : node.products;
+        Entry[] updated = withEntry(current, entry);
+        if (updated != current) {
+            if (category) {
+                node.categories = updated;
+            } else {
+                node.products = updated;
+            }
+        }
+    }
+
+    /**
+     * Copy of the top-K list with the entry (re)placed by score, or the same
+     * array if the entry does not make the cut
+     */
+    private Entry[] withEntry(Entry[] current, Entry entry) {
+        List<Entry> entries = new ArrayList<>(current.length + 1);
+        for (Entry existing : current) {
+            if (!existing.key().equals(entry.key())) {
+                entries.add(existing);
+            }
+        }
+        int at = 0;
+        while (at < entries.size() && entries.get(at).score() >= entry.score()) {
+            at++;
+        }
+        if (at >= topK) {
+            return current;
+        }
+        entries.add(at, entry);
+        if (entries.size() > topK) {
+            entries.remove(entries.size() - 1);
+        }
+        return entries.toArray(NO_ENTRIES);
+    }
+
+    private void rebuild() {
+        Node fresh = new Node();
+        Map<String, Long> sizes = new HashMap<>();
+        for (Entry entry : products.values()) {
+            insertProduct(fresh, entry);
+            String category = categoryByProduct.get(entry.productId());
+            if (category != null && !category.isBlank()) {
+                sizes.merge(category, 1L, Long::sum);
+            }
+        }
+        sizes.forEach((category, size) -> insertCategory(fresh, category, size));
+        categorySizes.clear();
+        categorySizes.putAll(sizes);
+        root = fresh;
+    }
+
+    private static void addChild(Node node, String label, Node child) {
+        String[] labels = node.edges.labels();
+        Node[] children = node.edges.children();
+        int at = 0;
+        while (at < labels.length && labels[at].charAt(0) < label.charAt(0)) {
+            at++;
+        }
+        String[] newLabels = new String[labels.length + 1];
+        Node[] newChildren = new Node[children.length + 1];
+        System.arraycopy(labels, 0, newLabels, 0, at);
+        System.arraycopy(children, 0, newChildren, 0, at);
+        newLabels[at] = label;
+        newChildren[at] = child;
+        System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+        System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+        node.edges = new Edges(newLabels, newChildren);
+    }
+
+    private static void replaceChild(Node node, int index, String label, Node child) {
+        String[] newLabels = node.edges.labels().clone();
+        Node[] newChildren = node.edges.children().clone();
+        newLabels[index] = label;
+        newChildren[index] = child;
+        node.edges = new Edges(newLabels, newChildren);
+    }
+
+    private static int childIndex(String[] labels, char first) {
+        int low = 0;
+        int high = labels.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char c = labels[mid].charAt(0);
+            if (c < first) {
+                low = mid + 1;
+            } else if (c > first) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static int commonPrefix(String label, String key, int position) {
+        int max = Math.min(label.length(), key.length() - position);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(position + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Lowercase, accent-free words separated by single spaces
+     */
+    private static String key(String text) {
+        return String.join(" ", Tokenizer.words(text));
+    }
+
+    /**
+     * Like {@link #key}, but a trailing separator is kept, so "rtx " only
+     * matches names with another word after rtx
+     */
+    private static String queryKey(String query) {
+        String key = key(query);
+        if (!key.isEmpty() && !Character.isLetterOrDigit(query.charAt(query.length() - 1))) {
+            return key + ' ';
+        }
+        return key;
+    }
+}
@@ -0,0 +1,63 @@
+package com.tiendagamer.productservice.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits catalog text into lowercase, accent-free terms. Indexed mixed words
+ * such as "16gb" or "rtx4070" also yield their letter and digit parts, so a
+ * search for "16 gb" finds "16gb"; the reverse is left to the searcher.
+ */
+public final class Tokenizer {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern LETTER_DIGIT = Pattern.compile("(?<=\\p{L})(?=\\p{N})|(?<=\\p{N})(?=\\p{L})");
+
+    private Tokenizer() {
+    }
+
+    public static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return ACCENTS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whole words of the text
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : SEPARATORS.split(normalize(text))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Letter and digit runs of a mixed word; empty for a plain word
+     */
+    public static List<String> parts(String word) {
+        String[] parts = LETTER_DIGIT.split(word);
+        return parts.length > 1 ? List.of(parts) : List.of();
+    }
+
+    /**
+     * Words plus the parts of mixed words, for indexing
+     */
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String word : words(text)) {
+            tokens.add(word);
+            tokens.addAll(parts(word));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,104 @@
+package com.tiendagamer.productservice.service;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic catalog version shared by all instances through one Mongo
+ * document. Every mutation increments it; reads only look at the local copy,
+ * which CatalogIndexLoader advances once the in-memory indexes hold the
+ * writes it covers. A local bump only moves it when no other instance's write
+ * was counted in between. Read endpoints use it as their ETag, so a matching
+ * If-None-Match is answered without a query.
+ *
+ * The increment is a separate write after the product's. If it fails, the
+ * write has still happened, so the bump is kept as owed and retried on the
+ * next write or index sync; until it lands this instance serves no ETag.
+ */
+@Component
+public class CatalogVersion {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersion.class);
+
+    private static final String COLLECTION = "catalog_meta";
+    private static final Query CATALOG = Query.query(Criteria.where("_id").is("catalog"));
+
+    private final MongoTemplate mongoTemplate;
+
+    // Local writes not yet counted in the shared version
+    private final AtomicLong owed = new AtomicLong();
+
+    // -1 until the first sync: no ETag is better than a wrong one
+    private final AtomicLong version = new AtomicLong(-1);
+
+    public CatalogVersion(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * ETag value for the current catalog, or null while the version is unknown
+     */
+    public String etag() {
+        long current = version.get();
+        return current < 0 || owed.get() > 0 ? null : Long.toString(current);
+    }
+
+    // After the read models have taken the product, so a new ETag never labels an old body
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductSaved(ProductSavedEvent event) {
+        owed.incrementAndGet();
+        settle();
+    }
+
+    /**
+     * Adds the owed bumps to the shared version. Never throws: the writes they
+     * stand for are already stored, and a failed bump stays owed for the next call.
+     */
+    public void settle() {
+        long pending = owed.getAndSet(0);
+        if (pending == 0) {
+            return;
+        }
+        try {
+            Document updated = mongoTemplate.findAndModify(CATALOG, new Update().inc("version", pending),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COLLECTION);
+            long latest = updated.get("version", Number.class).longValue();
+            // Only our own bumps on top of what is indexed here; anything else
+            // waits for CatalogIndexLoader to catch up on it
+            version.compareAndSet(latest - pending, latest);
+        } catch (DataAccessException e) {
+            owed.addAndGet(pending);
+            log.warn("Catalog version bump failed, retrying on next sync: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The shared version as stored in Mongo; 0 if nothing was written yet
+     */
+    public long fetch() {
+        Document current = mongoTemplate.findOne(CATALOG, Document.class, COLLECTION);
+        return current != null ? current.get("version", Number.class).longValue() : 0;
+    }
+
+    /**
+     * Moves the local copy up to {@code latest} once the indexes hold every
+     * write it counts; never moves it back
+     */
+    public void advanceTo(long latest) {
+        version.accumulateAndGet(latest, Math::max);
+    }
+}
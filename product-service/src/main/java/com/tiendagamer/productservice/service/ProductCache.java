@@ -0,0 +1,96 @@
+package com.tiendagamer.productservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tiendagamer.productservice.model.Product;
+import com.tiendagamer.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Products by id as ready-to-send JSON. A hit costs neither a Mongo round
+ * trip nor a Jackson pass over the specs map. Bounded by serialized bytes
+ * with Caffeine's W-TinyLFU eviction, so a scan over cold products cannot
+ * flush the popular ones.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final ObjectWriter writer;
+    private final Cache<String, byte[]> cache;
+
+    public ProductCache(
+            ProductRepository productRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${products.cache.max-size:64MB}") DataSize maxSize) {
+        this.productRepository = productRepository;
+        this.writer = objectMapper.writerFor(Product.class);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String id, byte[] json) -> id.length() + json.length)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size, ...
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    /**
+     * Serialized product, loaded from Mongo on a miss; null if it does not exist
+     */
+    public byte[] get(String id) {
+        byte[] cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        // Load outside the cache: get(key, loader) runs the query while holding a
+        // map bin monitor, which pins the carrier when called from a virtual thread
+        Product product = productRepository.findById(id).orElse(null);
+        return product != null ? cacheIfAbsent(id, serialize(product)) : null;
+    }
+
+    /**
+     * Serialized products for the ids that exist, with one Mongo query for all misses
+     */
+    public Map<String, byte[]> getAll(Collection<String> ids) {
+        Map<String, byte[]> found = new HashMap<>(cache.getAllPresent(ids));
+        List<String> missing = ids.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+        if (!missing.isEmpty()) {
+            productRepository.findAllById(missing)
+                    .forEach(product -> found.put(product.getId(), cacheIfAbsent(product.getId(), serialize(product))));
+        }
+        return found;
+    }
+
+    @EventListener
+    public void onProductSaved(ProductSavedEvent event) {
+        for (Product product : event.products()) {
+            cache.put(product.getId(), serialize(product));
+        }
+    }
+
+    /**
+     * A write that landed while we were loading has already put the newer
+     * version; keep that one rather than the one we read
+     */
+    private byte[] cacheIfAbsent(String id, byte[] json) {
+        byte[] current = cache.asMap().putIfAbsent(id, json);
+        return current != null ? current : json;
+    }
+
+    private byte[] serialize(Product product) {
+        return writer.writeValueAsBytes(product);
+    }
+}
@@ -0,0 +1,82 @@
+package com.tiendagamer.productservice.service;
+
+import com.tiendagamer.productservice.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Writes the catalog as NDJSON straight from a Mongo cursor. Only one cursor
+ * batch and one serialized product are held at a time, so heap use does not
+ * grow with the catalog. Writes block on a slow client, and the cursor only
+ * fetches its next batch once the previous one has been written.
+ */
+@Service
+public class ProductExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductExportService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectWriter writer;
+    private final int batchSize;
+    private final Duration watermarkLag;
+
+    public ProductExportService(
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            @Value("${products.export.batch-size:500}") int batchSize,
+            @Value("${products.export.watermark-lag:5s}") Duration watermarkLag) {
+        this.mongoTemplate = mongoTemplate;
+        this.writer = objectMapper.writerFor(Product.class);
+        this.batchSize = batchSize;
+        this.watermarkLag = watermarkLag;
+    }
+
+    /**
+     * The since to hand back for the next incremental export. updatedAt is stamped
+     * by whichever instance writes the product, before the insert reaches Mongo, so
+     * the watermark trails now by {@code products.export.watermark-lag} to cover that
+     * delay plus clock differences between instances.
+     */
+    public Instant watermark() {
+        return Instant.now().minus(watermarkLag);
+    }
+
+    /**
+     * Writes one product per line to {@code out}; with {@code since}, only
+     * products written at or after that instant. Does not close {@code out}.
+     *
+     * @return number of products written
+     */
+    public long export(Instant since, OutputStream out) throws IOException {
+        Query query = since != null
+                ? Query.query(Criteria.where("updatedAt").gte(since))
+                : new Query();
+        query.cursorBatchSize(batchSize);
+
+        long started = System.nanoTime();
+        long count = 0;
+        try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                out.write(writer.writeValueAsBytes(product));
+                out.write('\n');
+                count++;
+            }
+        }
+        log.debug("Exported {} products (since={}) in {} ms",
+                count, since, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+}
@@ -0,0 +1,190 @@
+package com.tiendagamer.productservice.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.tiendagamer.productservice.dto.ImportError;
+import com.tiendagamer.productservice.dto.ImportReport;
+import com.tiendagamer.productservice.dto.ProductRequest;
+import com.tiendagamer.productservice.model.Product;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a supplier feed (a JSON array or NDJSON of ProductRequests),
+ * validates each item with its Jakarta constraints and inserts the valid ones
+ * in unordered bulk writes of products.import.batch-size. An item that fails
+ * to parse, validate or insert is reported and the rest of its batch still
+ * goes in.
+ */
+@Service
+public class ProductImportService {
+
+    public enum Format { JSON_ARRAY, NDJSON }
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ProductImportService(
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${products.import.batch-size:1000}") int batchSize,
+            @Value("${products.import.max-reported-errors:10000}") int maxReportedErrors) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    private record Item(long number, Product product) {
+    }
+
+    public ImportReport importProducts(BufferedReader reader, Format format) throws IOException {
+        long start = System.currentTimeMillis();
+        Progress progress = new Progress();
+        List<Item> batch = new ArrayList<>(batchSize);
+
+        if (format == Format.NDJSON) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JacksonException e) {
+                    progress.reject(lineNumber, "Malformed JSON");
+                    continue;
+                }
+                accept(lineNumber, node, batch, progress);
+            }
+        } else {
+            try (JsonParser parser = objectMapper.createParser(reader)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("Expected a JSON array of products");
+                }
+                long itemNumber = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    itemNumber++;
+                    // Syntax errors end the array; mapping errors only reject the item
+                    accept(itemNumber, parser.readValueAsTree(), batch, progress);
+                }
+            } catch (JacksonException e) {
+                progress.reject(0, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(batch, progress);
+        }
+
+        return ImportReport.builder()
+                .imported(progress.imported)
+                .rejected(progress.rejected)
+                .errors(progress.errors)
+                .durationMillis(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    private void accept(long number, JsonNode node, List<Item> batch, Progress progress) {
+        ProductRequest request;
+        try {
+            request = objectMapper.treeToValue(node, ProductRequest.class);
+        } catch (JacksonException e) {
+            progress.reject(number, "Invalid product: " + e.getOriginalMessage());
+            return;
+        }
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            progress.reject(number, violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return;
+        }
+
+        Product product = ProductService.newProduct(request);
+        // Assigned here so the read models get the same id Mongo stores
+        product.setId(new ObjectId().toHexString());
+        batch.add(new Item(number, product));
+        if (batch.size() >= batchSize) {
+            insert(batch, progress);
+            batch.clear();
+        }
+    }
+
+    private void insert(List<Item> batch, Progress progress) {
+        List<Product> products = batch.stream().map(Item::product).toList();
+        // Stamped at the write, not at parse time: a batch can take a while to
+        // fill from a streamed feed, and catch-up and exports only reach back
+        // a few seconds before their watermark
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        products.forEach(product -> product.setUpdatedAt(now));
+        Set<Integer> failed = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class)
+                    .insert(products)
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Unordered: everything not listed here was inserted
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+                progress.reject(batch.get(error.getIndex()).number(), error.getMessage());
+            }
+        }
+
+        List<Product> inserted = new ArrayList<>(products.size() - failed.size());
+        for (int i = 0; i < products.size(); i++) {
+            if (!failed.contains(i)) {
+                inserted.add(products.get(i));
+            }
+        }
+        progress.imported += inserted.size();
+        if (!inserted.isEmpty()) {
+            eventPublisher.publishEvent(new ProductSavedEvent(inserted));
+        }
+    }
+
+    private class Progress {
+        private long imported;
+        private long rejected;
+        private final List<ImportError> errors = new ArrayList<>();
+
+        void reject(long item, String reason) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(ImportError.builder().item(item).reason(reason).build());
+            }
+        }
+    }
+}
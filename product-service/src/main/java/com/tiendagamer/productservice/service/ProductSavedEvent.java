@@ -0,0 +1,17 @@
+package com.tiendagamer.productservice.service;
+
+import com.tiendagamer.productservice.model.Product;
+
+import java.util.List;
+
+/**
+ * Published synchronously after products are persisted, so in-memory read
+ * models are up to date by the time the write request returns. A bulk
+ * import publishes one event per batch.
+ */
+public record ProductSavedEvent(List<Product> products) {
+
+    public static ProductSavedEvent of(Product product) {
+        return new ProductSavedEvent(List.of(product));
+    }
+}
@@ -1,24 +1,188 @@
 package com.tiendagamer.productservice.service;
 
+import com.tiendagamer.productservice.dto.FacetCounts;
+import com.tiendagamer.productservice.dto.ProductQuery;
 import com.tiendagamer.productservice.dto.ProductRequest;
+import com.tiendagamer.productservice.dto.Suggestions;
 import com.tiendagamer.productservice.model.Product;
 import com.tiendagamer.productservice.repository.ProductRepository;
-import lombok.RequiredArgsConstructor;
+import com.tiendagamer.productservice.search.CatalogIndexLoader;
+import com.tiendagamer.productservice.search.CatalogSnapshot;
+import com.tiendagamer.productservice.search.FacetIndex;
+import com.tiendagamer.productservice.search.SearchIndex;
+import com.tiendagamer.productservice.search.SuggestIndex;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
-@RequiredArgsConstructor
 public class ProductService {
 
+    private static final byte[] PAGE_START = "{\"items\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PAGE_CURSOR = "],\"nextCursor\":".getBytes(StandardCharsets.UTF_8);
+
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final SearchIndex searchIndex;
+    private final SuggestIndex suggestIndex;
+    private final FacetIndex facetIndex;
+    private final CatalogSnapshot catalogSnapshot;
+    private final CatalogIndexLoader catalogIndexLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int suggestLimit;
+
+    public ProductService(
+            ProductRepository productRepository,
+            ProductCache productCache,
+            SearchIndex searchIndex,
+            SuggestIndex suggestIndex,
+            FacetIndex facetIndex,
+            CatalogSnapshot catalogSnapshot,
+            CatalogIndexLoader catalogIndexLoader,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${products.page.default-size:50}") int defaultPageSize,
+            @Value("${products.page.max-size:200}") int maxPageSize,
+            @Value("${products.suggest.limit:5}") int suggestLimit) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+        this.catalogSnapshot = catalogSnapshot;
+        this.catalogIndexLoader = catalogIndexLoader;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.suggestLimit = suggestLimit;
+    }
+
+    /**
+     * One page of products in _id order, starting after the cursor, as the JSON
+     * of a {@link com.tiendagamer.productservice.dto.ProductPage}. Mongo only
+     * returns the ids; the product bodies are spliced in from ProductCache.
+     * Rows already returned are never shifted or repeated. _ids are not assigned
+     * in creation order, though (imports assign them at parse time), so a product
+     * created mid-walk may sort before the cursor and only show up on the next walk.
+     */
+    public byte[] getPage(String cursor, Integer limit) {
+        int size = Math.min(limit != null && limit > 0 ? limit : defaultPageSize, maxPageSize);
+
+        // One extra row tells us whether there is a next page without a count query
+        Limit fetch = Limit.of(size + 1);
+        List<String> ids = (cursor == null || cursor.isBlank()
+                ? productRepository.findAllByOrderByIdAsc(fetch)
+                : productRepository.findByIdGreaterThanOrderByIdAsc(decodeCursor(cursor), fetch))
+                .stream().map(Product::getId).toList();
+
+        String nextCursor = null;
+        if (ids.size() > size) {
+            ids = ids.subList(0, size);
+            nextCursor = encodeCursor(ids.get(size - 1));
+        }
+        return pageJson(ids, nextCursor);
+    }
+
+    /**
+     * A page of products matching the query, in the requested order, as the
+     * JSON of a {@link com.tiendagamer.productservice.dto.ProductPage}. Paged
+     * by a keyset on (sort field, _id) like {@link #getPage}. Answered from the
+     * in-memory CatalogSnapshot once it holds the whole catalog, from the
+     * indexed Mongo query until then.
+     */
+    public byte[] query(ProductQuery query) {
+        int size = Math.min(query.getLimit() != null && query.getLimit() > 0 ? query.getLimit() : defaultPageSize, maxPageSize);
+        List<Product> matches;
+        try {
+            Product after = query.getCursor() == null || query.getCursor().isBlank()
+                    ? null
+                    : decodeQueryCursor(query.getCursor(), query.sortField());
+            matches = catalogIndexLoader.isLoaded()
+                    ? catalogSnapshot.findPage(query, after, size + 1)
+                    : productRepository.findPage(query, after, size + 1);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        String nextCursor = null;
+        if (matches.size() > size) {
+            matches = matches.subList(0, size);
+            Product last = matches.get(size - 1);
+            Object sortValue = query.sortField().equals("price") ? last.getPrice() : last.getName();
+            // The id has a fixed length, so the sort value needs no delimiter
+            nextCursor = encodeCursor(last.getId() + sortValue);
+        }
+        return pageJson(matches.stream().map(Product::getId).toList(), nextCursor);
+    }
+
+    /**
+     * Best matches for free text, ranked in memory; only the product bodies
+     * that are not cached yet come from Mongo
+     */
+    public byte[] search(String text, Integer limit) {
+        int size = Math.min(limit != null && limit > 0 ? limit : defaultPageSize, maxPageSize);
+        return pageJson(searchIndex.search(text, size), null);
+    }
+
+    /**
+     * Typeahead answered entirely from memory
+     */
+    public Suggestions suggest(String text, Integer limit) {
+        return suggestIndex.suggest(text, limit != null && limit > 0 ? limit : suggestLimit);
+    }
+
+    /**
+     * Facet counts for a category page, narrowed by facets selected as key:value
+     */
+    public FacetCounts facets(String category, List<String> facets) {
+        Map<String, Set<String>> selected = new HashMap<>();
+        if (facets != null) {
+            for (String facet : facets) {
+                int separator = facet.indexOf(':');
+                if (separator <= 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Facet must be key:value, got " + facet);
+                }
+                selected.computeIfAbsent(facet.substring(0, separator), k -> new HashSet<>())
+                        .add(facet.substring(separator + 1));
+            }
+        }
+        try {
+            return facetIndex.count(category == null || category.isBlank() ? null : category, selected);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 
-    public List<Product> getAll() {
-        return productRepository.findAll();
+    /**
+     * Product JSON, or null if there is no product with that id
+     */
+    public byte[] getById(String id) {
+        return productCache.get(id);
     }
 
     public Product create(ProductRequest request) {
+        Product saved = productRepository.save(newProduct(request));
+        eventPublisher.publishEvent(ProductSavedEvent.of(saved));
+        return saved;
+    }
+
+    static Product newProduct(ProductRequest request) {
 
         Product product = new Product();
 
@@ -28,7 +192,73 @@ public class ProductService {
         product.setCategory(request.getCategory());
         product.setImages(request.getImages());
         product.setSpecs(request.getSpecs());
+        // Mongo keeps millis; match it so cached JSON equals what a reload would produce
+        product.setUpdatedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+
+        return product;
+    }
+
+    private byte[] pageJson(List<String> ids, String nextCursor) {
+        Map<String, byte[]> products = productCache.getAll(ids);
+        ByteArrayOutputStream json = new ByteArrayOutputStream(64 + 512 * ids.size());
+        json.writeBytes(PAGE_START);
+        boolean first = true;
+        for (String id : ids) {
+            byte[] product = products.get(id);
+            if (product == null) {
+                continue; // deleted since the id query
+            }
+            if (!first) {
+                json.write(',');
+            }
+            json.writeBytes(product);
+            first = false;
+        }
+        json.writeBytes(PAGE_CURSOR);
+        // base64url needs no escaping
+        json.writeBytes((nextCursor == null ? "null" : '"' + nextCursor + '"').getBytes(StandardCharsets.US_ASCII));
+        json.write('}');
+        return json.toByteArray();
+    }
+
+    private static String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (ObjectId.isValid(id)) {
+                return id;
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
 
-        return productRepository.save(product);
+    private static Product decodeQueryCursor(String cursor, String sortField) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (decoded.length() < 24 || !ObjectId.isValid(decoded.substring(0, 24))) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        Product after = new Product();
+        after.setId(decoded.substring(0, 24));
+        String value = decoded.substring(24);
+        if (sortField.equals("price")) {
+            try {
+                after.setPrice(Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor does not match the sort order");
+            }
+        } else {
+            after.setName(value);
+        }
+        return after;
     }
 }
@@ -0,0 +1,51 @@
+package com.tiendagamer.productservice;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.MongoVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+/**
+ * In-process mongo-java-server for tests that need Mongo's own query, sort
+ * and bulk write behaviour rather than a mock
+ */
+public final class InMemoryMongo implements AutoCloseable {
+
+	// The bundled versions predate the oldest wire version the driver accepts
+	private static final MongoVersion MONGO_6_0 = new MongoVersion() {
+		@Override
+		public List<Integer> getVersionArray() {
+			return List.of(6, 0, 0);
+		}
+
+		@Override
+		public int getWireVersion() {
+			return 17;
+		}
+	};
+
+	private final MongoServer server;
+	private final MongoClient client;
+	private final MongoTemplate mongoTemplate;
+
+	public InMemoryMongo() {
+		server = new MongoServer(new MemoryBackend().version(MONGO_6_0));
+		client = MongoClients.create(server.bindAndGetConnectionString());
+		mongoTemplate = new MongoTemplate(client, "products_db");
+	}
+
+	public MongoTemplate template() {
+		return mongoTemplate;
+	}
+
+	@Override
+	public void close() {
+		client.close();
+		server.shutdown();
+	}
+
+}
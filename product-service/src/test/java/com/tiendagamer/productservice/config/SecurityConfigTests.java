@@ -0,0 +1,50 @@
+package com.tiendagamer.productservice.config;
+
+import com.tiendagamer.jwtcore.JwtSigner;
+import com.tiendagamer.jwtcore.TokenClaims;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.oneOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SecurityConfigTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Value("${jwt.secret}")
+	private String secret;
+
+	@Test
+	void metricsNeedAServiceToken() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+
+		String userToken = new JwtSigner(secret, 60_000).sign("admin@tiendagamer.com", "ADMIN", UUID.randomUUID());
+		mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken))
+				.andExpect(status().isForbidden());
+
+		String serviceToken = new JwtSigner(secret, 60_000)
+				.sign("prometheus", Map.of(TokenClaims.ROLE, TokenClaims.SERVICE_ROLE));
+		mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceToken))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void healthStaysPublic() throws Exception {
+		// 503 without a reachable Mongo, but never an auth failure
+		mockMvc.perform(get("/actuator/health")).andExpect(status().is(oneOf(200, 503)));
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.tiendagamer.productservice.controller;
+
+import com.tiendagamer.productservice.InMemoryMongo;
+import com.tiendagamer.productservice.model.Product;
+import com.tiendagamer.productservice.service.CatalogVersion;
+import com.tiendagamer.productservice.service.ProductExportService;
+import com.tiendagamer.productservice.service.ProductImportService;
+import com.tiendagamer.productservice.service.ProductSavedEvent;
+import com.tiendagamer.productservice.service.ProductService;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs against a real CatalogVersion; security is left out, only
+ * the ETag handling is under test
+ */
+class ProductControllerTests {
+
+	private InMemoryMongo mongo;
+	private MongoTemplate mongoTemplate;
+	private ProductService productService;
+	private CatalogVersion catalogVersion;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mongo = new InMemoryMongo();
+		mongoTemplate = spy(mongo.template());
+		productService = mock(ProductService.class);
+		when(productService.getById("p")).thenReturn("{\"id\":\"p\"}".getBytes(StandardCharsets.UTF_8));
+		catalogVersion = new CatalogVersion(mongoTemplate);
+		mockMvc = MockMvcBuilders.standaloneSetup(new ProductController(productService,
+				mock(ProductExportService.class), mock(ProductImportService.class), catalogVersion)).build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongo.close();
+	}
+
+	@Test
+	void matchingEtagIsAnsweredWithoutBuildingTheBody() throws Exception {
+		catalogVersion.advanceTo(catalogVersion.fetch());
+
+		mockMvc.perform(get("/products/p"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+				.andExpect(content().string("{\"id\":\"p\"}"));
+
+		mockMvc.perform(get("/products/p").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+				.andExpect(content().string(""));
+
+		verify(productService, times(1)).getById("p");
+	}
+
+	@Test
+	void localWriteChangesTheEtag() throws Exception {
+		catalogVersion.advanceTo(catalogVersion.fetch());
+
+		catalogVersion.onProductSaved(saved());
+
+		mockMvc.perform(get("/products/p").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+	}
+
+	@Test
+	void noEtagWhileABumpIsOwed() throws Exception {
+		catalogVersion.advanceTo(catalogVersion.fetch());
+		doThrow(new DataAccessResourceFailureException("connection lost"))
+				.when(mongoTemplate).findAndModify(any(Query.class), any(UpdateDefinition.class),
+						any(FindAndModifyOptions.class), eq(Document.class), anyString());
+
+		catalogVersion.onProductSaved(saved());
+
+		mockMvc.perform(get("/products/p").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void noEtagBeforeTheFirstSync() throws Exception {
+		mockMvc.perform(get("/products/p"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void missingProductIsNotFound() throws Exception {
+		catalogVersion.advanceTo(catalogVersion.fetch());
+
+		mockMvc.perform(get("/products/missing"))
+				.andExpect(status().isNotFound());
+	}
+
+	private static ProductSavedEvent saved() {
+		Product product = new Product();
+		product.setId("p");
+		return ProductSavedEvent.of(product);
+	}
+
+}
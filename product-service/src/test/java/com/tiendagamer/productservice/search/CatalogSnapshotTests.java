@@ -0,0 +1,128 @@
+package com.tiendagamer.productservice.search;
+
+import com.tiendagamer.productservice.InMemoryMongo;
+import com.tiendagamer.productservice.dto.ProductQuery;
+import com.tiendagamer.productservice.model.Product;
+import com.tiendagamer.productservice.repository.ProductQueryRepositoryImpl;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * The snapshot must page exactly like the Mongo query it stands in for, so
+ * both run the same queries over the same products
+ */
+class CatalogSnapshotTests {
+
+	private static final Set<String> SPEC_KEYS = Set.of("brand", "platform");
+
+	private static InMemoryMongo mongo;
+	private static ProductQueryRepositoryImpl repository;
+	private static CatalogSnapshot snapshot;
+
+	@BeforeAll
+	static void setUp() {
+		mongo = new InMemoryMongo();
+		MongoTemplate mongoTemplate = mongo.template();
+		repository = new ProductQueryRepositoryImpl(mongoTemplate, SPEC_KEYS);
+		snapshot = new CatalogSnapshot(SPEC_KEYS);
+
+		// Shuffled ids so _id order is unrelated to price and name; repeated
+		// prices and names make the _id tie-breaker decide
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 14; i++) {
+			ids.add(new ObjectId().toHexString());
+		}
+		Collections.shuffle(ids, new Random(42));
+		int[] prices = {300, 100, 300, 200, 300, 100, 500, 200, 300, 400, 100, 300, 200, 500};
+		String[] names = {"Mouse", "Cable", "Mouse", "Teclado", "Monitor", "Cable", "Silla",
+				"Auriculares", "Mouse", "Monitor", "Alfombrilla", "Teclado", "Auriculares", "Silla"};
+		for (int i = 0; i < ids.size(); i++) {
+			Product product = new Product();
+			product.setId(ids.get(i));
+			product.setName(names[i]);
+			product.setPrice(prices[i]);
+			product.setCategory(i % 3 == 0 ? "monitores" : "perifericos");
+			product.setSpecs(Map.of("brand", i % 2 == 0 ? "asus" : "logitech"));
+			mongoTemplate.save(product);
+			snapshot.index(product);
+		}
+	}
+
+	@AfterAll
+	static void tearDown() {
+		mongo.close();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"price", "-price", "name", "-name"})
+	void walksTheWholeCatalogLikeMongo(String sort) {
+		assertSamePages(ProductQuery.builder().sort(sort).build(), 14);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"price", "-price", "name", "-name"})
+	void appliesFiltersLikeMongo(String sort) {
+		assertSamePages(ProductQuery.builder().sort(sort).category("perifericos").build(), 9);
+		assertSamePages(ProductQuery.builder().sort(sort).minPrice(200).maxPrice(300).build(), 8);
+		assertSamePages(ProductQuery.builder().sort(sort).spec(List.of("brand:asus")).build(), 7);
+		assertSamePages(ProductQuery.builder().sort(sort).category("monitores").spec(List.of("brand:logitech")).build(), 2);
+	}
+
+	@Test
+	void unknownValuesMatchNothing() {
+		assertEquals(List.of(), snapshot.findPage(ProductQuery.builder().category("sillas").build(), null, 10));
+		assertEquals(List.of(), snapshot.findPage(ProductQuery.builder().spec(List.of("brand:msi")).build(), null, 10));
+	}
+
+	/**
+	 * Walks both sides with the same page sizes, feeding each its own last row
+	 * as the cursor, and compares every page
+	 */
+	private static void assertSamePages(ProductQuery query, int expectedTotal) {
+		for (int limit : new int[] {1, 3, 20}) {
+			List<String> expected = walk(query, limit, repository::findPage);
+			List<String> actual = walk(query, limit, snapshot::findPage);
+			assertEquals(expected, actual, query + " in pages of " + limit);
+			assertEquals(expectedTotal, actual.size(), query + " in pages of " + limit);
+		}
+	}
+
+	private static List<String> walk(ProductQuery query, int limit, PageFinder finder) {
+		String sortField = query.sortField();
+		List<String> rows = new ArrayList<>();
+		Product after = null;
+		// A cursor that stops advancing would otherwise walk forever
+		for (int pages = 0; pages <= 20; pages++) {
+			List<Product> page = finder.findPage(query, after, limit);
+			for (Product product : page) {
+				Object sortValue = sortField.equals("price") ? product.getPrice() : product.getName();
+				rows.add(sortValue + "/" + product.getId());
+			}
+			if (page.size() < limit) {
+				return rows;
+			}
+			after = page.getLast();
+		}
+		return fail("Walk did not end: " + rows);
+	}
+
+	private interface PageFinder {
+		List<Product> findPage(ProductQuery query, Product after, int limit);
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.tiendagamer.productservice.search;
+
+import com.tiendagamer.productservice.dto.FacetCounts;
+import com.tiendagamer.productservice.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FacetIndexTests {
+
+	private FacetIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new FacetIndex(Set.of("brand", "vram"), 3);
+	}
+
+	@Test
+	void valuesPastTheCapAreNotCounted() {
+		index.index(product("1", "gpu", "Asus", "8GB"));
+		index.index(product("2", "gpu", "MSI", "8GB"));
+		index.index(product("3", "gpu", "Gigabyte", "8GB"));
+		index.index(product("4", "gpu", "Zotac", "8GB"));
+
+		FacetCounts counts = index.count("gpu", Map.of());
+		assertEquals(4, counts.getTotal());
+		assertEquals(Map.of("Asus", 1, "Gigabyte", 1, "MSI", 1), counts.getFacets().get("brand"));
+		assertEquals(Map.of("8GB", 4), counts.getFacets().get("vram"));
+
+		// Selecting the dropped value matches nothing rather than failing
+		assertEquals(0, index.count("gpu", Map.of("brand", Set.of("Zotac"))).getTotal());
+	}
+
+	@Test
+	void reindexReplacesOldCounts() {
+		index.index(product("1", "gpu", "Asus", "8GB"));
+		index.index(product("2", "gpu", "Asus", "12GB"));
+		index.index(product("1", "gpu", "MSI", "16GB"));
+
+		FacetCounts counts = index.count("gpu", Map.of());
+		assertEquals(2, counts.getTotal());
+		assertEquals(Map.of("Asus", 1, "MSI", 1), counts.getFacets().get("brand"));
+		assertEquals(Map.of("12GB", 1, "16GB", 1), counts.getFacets().get("vram"));
+		assertEquals(1, index.count("gpu", Map.of("vram", Set.of("16GB"))).getTotal());
+		assertEquals(0, index.count("gpu", Map.of("vram", Set.of("8GB"))).getTotal());
+
+		// Moving to another category takes its counts along
+		index.index(product("2", "cpu", "Asus", "12GB"));
+		assertEquals(1, index.count("gpu", Map.of()).getTotal());
+		assertEquals(Map.of("MSI", 1), index.count("gpu", Map.of()).getFacets().get("brand"));
+		assertEquals(Map.of("Asus", 1), index.count("cpu", Map.of()).getFacets().get("brand"));
+	}
+
+	@Test
+	void eachKeyIsCountedWithTheOtherKeysSelections() {
+		index.index(product("1", "gpu", "Asus", "8GB"));
+		index.index(product("2", "gpu", "Asus", "12GB"));
+		index.index(product("3", "gpu", "MSI", "8GB"));
+		index.index(product("4", "monitor", "Asus", null));
+
+		FacetCounts asus = index.count("gpu", Map.of("brand", Set.of("Asus")));
+		assertEquals(2, asus.getTotal());
+		// brand ignores its own selection so alternatives stay visible; vram applies it
+		assertEquals(Map.of("Asus", 2, "MSI", 1), asus.getFacets().get("brand"));
+		assertEquals(Map.of("12GB", 1, "8GB", 1), asus.getFacets().get("vram"));
+
+		FacetCounts asus8 = index.count("gpu", Map.of("brand", Set.of("Asus"), "vram", Set.of("8GB")));
+		assertEquals(1, asus8.getTotal());
+		assertEquals(Map.of("Asus", 1, "MSI", 1), asus8.getFacets().get("brand"));
+		assertEquals(Map.of("12GB", 1, "8GB", 1), asus8.getFacets().get("vram"));
+
+		// Values of one key are OR-ed
+		assertEquals(3, index.count("gpu", Map.of("brand", Set.of("Asus", "MSI"))).getTotal());
+	}
+
+	@Test
+	void allCategoriesWhenNoneIsGiven() {
+		index.index(product("1", "gpu", "Asus", "8GB"));
+		index.index(product("2", "monitor", "Asus", null));
+		index.index(product("3", "gpu", "MSI", "8GB"));
+
+		FacetCounts counts = index.count(null, Map.of());
+		assertEquals(3, counts.getTotal());
+		// Most common value first
+		assertEquals(List.of("Asus", "MSI"), List.copyOf(counts.getFacets().get("brand").keySet()));
+	}
+
+	@Test
+	void rejectsKeysOutsideTheAllowList() {
+		assertThrows(IllegalArgumentException.class, () -> index.count("gpu", Map.of("color", Set.of("red"))));
+	}
+
+	private static Product product(String id, String category, String brand, String vram) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName("Producto " + id);
+		product.setCategory(category);
+		Map<String, Object> specs = new HashMap<>();
+		specs.put("brand", brand);
+		if (vram != null) {
+			specs.put("vram", vram);
+		}
+		product.setSpecs(specs);
+		return product;
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.tiendagamer.productservice.search;
+
+import com.tiendagamer.productservice.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchIndexTests {
+
+	private SimpleMeterRegistry meterRegistry;
+	private SearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		index = new SearchIndex(meterRegistry, 0.25);
+	}
+
+	@Test
+	void nameMatchesAndMoreMatchedTermsRankHigher() {
+		index.index(product("desc", "Teclado mecanico", "Switches red, ideal para gaming", "perifericos"));
+		index.index(product("name", "Gaming mouse", "Sensor optico", "perifericos"));
+		index.index(product("both", "Gaming mouse inalambrico", "Mouse gaming", "perifericos"));
+		index.index(product("other", "Monitor 27", "Panel IPS", "monitores"));
+
+		assertEquals(List.of("both", "name", "desc"), index.search("gaming mouse", 10));
+		assertEquals(List.of("both", "name"), index.search("gaming mouse", 2));
+		assertEquals(List.of(), index.search("teclado", 0));
+	}
+
+	@Test
+	void tiesGoToTheOlderProduct() {
+		index.index(product("first", "Cable HDMI", null, "accesorios"));
+		index.index(product("second", "Cable HDMI", null, "accesorios"));
+
+		assertEquals(List.of("first", "second"), index.search("cable", 10));
+	}
+
+	@Test
+	void mixedWordFallsBackToItsPartsOnlyWhenNothingHasTheWholeWord() {
+		index.index(product("spaced", "Memoria RAM", "Kit de 16 GB DDR5", "memorias"));
+
+		// Nothing has "16gb", so it is searched as "16" and "gb"
+		assertEquals(List.of("spaced"), index.search("16gb", 10));
+
+		index.index(product("joined", "Memoria RAM", "Kit de 16GB DDR4", "memorias"));
+
+		// Now the whole word exists and only products containing it match
+		assertEquals(List.of("joined"), index.search("16gb", 10));
+		assertEquals(List.of("joined", "spaced"), index.search("16 gb", 10).stream().sorted().toList());
+	}
+
+	@Test
+	void reindexedProductOnlyMatchesItsCurrentText() {
+		index.index(product("gpu", "RTX 4070", "Tarjeta grafica", "gpu"));
+		index.index(product("gpu", "RX 7800 XT", "Tarjeta grafica", "gpu"));
+
+		assertEquals(List.of(), index.search("4070", 10));
+		assertEquals(List.of("gpu"), index.search("7800", 10));
+		assertEquals(List.of("gpu"), index.search("tarjeta", 10));
+		assertEquals(1.0, meterRegistry.get("products.search.documents").gauge().value());
+	}
+
+	@Test
+	void compactsOnceTombstonesPassTheRatio() {
+		for (int i = 0; i < 8; i++) {
+			index.index(product("p" + i, "Producto " + i, "Modelo viejo", "varios"));
+		}
+		// Two tombstones out of eight live docs stay below 0.25
+		index.index(product("p0", "Producto 0", "Modelo nuevo", "varios"));
+		index.index(product("p1", "Producto 1", "Modelo nuevo", "varios"));
+		assertEquals(2.0, meterRegistry.get("products.search.tombstones").gauge().value());
+
+		index.index(product("p2", "Producto 2", "Modelo nuevo", "varios"));
+		assertEquals(0.0, meterRegistry.get("products.search.tombstones").gauge().value());
+
+		// Renumbering keeps insertion order for ties and drops the replaced text
+		assertEquals(List.of("p3", "p4", "p5", "p6", "p7"), index.search("viejo", 10));
+		assertEquals(List.of("p0", "p1", "p2"), index.search("nuevo", 10));
+		assertEquals(List.of("p5"), index.search("producto 5", 1));
+
+		index.index(product("p3", "Producto 3", "Modelo nuevo", "varios"));
+		assertEquals(List.of("p0", "p1", "p2", "p3"), index.search("nuevo", 10));
+	}
+
+	@Test
+	void idfCountsOnlyLiveDocuments() {
+		// b and c only differ in which query term they match, so idf alone orders them
+		index = new SearchIndex(new SimpleMeterRegistry(), 10);
+		index.index(product("a", "Silla gamer", "Ergonomica", "sillas"));
+		index.index(product("b", "Escritorio", "Ergonomica", "muebles"));
+		index.index(product("c", "Oficina", "Ergonomica", "sillas"));
+		index.index(product("c", "Oficina", "Silla", "sillas"));
+
+		// Both terms are in two live products; a stale count would make "ergonomica"
+		// look more common than "silla" and put c ahead of b
+		assertEquals(List.of("a", "b", "c"), index.search("silla ergonomica", 10));
+	}
+
+	private static Product product(String id, String name, String description, String category) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName(name);
+		product.setDescription(description);
+		product.setCategory(category);
+		product.setSpecs(Map.of());
+		return product;
+	}
+
+}
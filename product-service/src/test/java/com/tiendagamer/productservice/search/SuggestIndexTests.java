@@ -0,0 +1,118 @@
+package com.tiendagamer.productservice.search;
+
+import com.tiendagamer.productservice.dto.ProductSuggestion;
+import com.tiendagamer.productservice.dto.Suggestions;
+import com.tiendagamer.productservice.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SuggestIndexTests {
+
+	private SuggestIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new SuggestIndex(new SimpleMeterRegistry(), 2);
+	}
+
+	@Test
+	void splitEdgeKeepsSuggestionsOnBothSides() {
+		index.index(product("mouse", "Gaming Mouse", 300, "perifericos"));
+		// Splits the "gaming mouse" edge at "gam"
+		index.index(product("pad", "Gamepad", 200, "perifericos"));
+
+		assertEquals(List.of("mouse", "pad"), productIds("gam"));
+		assertEquals(List.of("pad"), productIds("game"));
+		assertEquals(List.of("mouse"), productIds("gami"));
+		assertEquals(List.of("mouse"), productIds("mouse"));
+	}
+
+	@Test
+	void prefixEndingInsideAnEdgeMatchesEverythingBelowIt() {
+		index.index(product("teclado", "Teclado Mecanico", 150, "perifericos"));
+
+		assertEquals(List.of("teclado"), productIds("tec"));
+		assertEquals(List.of("teclado"), productIds("teclado meca"));
+		assertEquals(List.of(), productIds("tecx"));
+		assertEquals(List.of(), productIds("teclados"));
+	}
+
+	@Test
+	void trailingSeparatorRequiresAnotherWord() {
+		index.index(product("rtx", "RTX", 500, "gpu"));
+		index.index(product("rtx4070", "RTX 4070", 600, "gpu"));
+
+		assertEquals(List.of("rtx4070", "rtx"), productIds("rtx"));
+		assertEquals(List.of("rtx4070"), productIds("rtx "));
+	}
+
+	@Test
+	void topKKeepsTheMostExpensiveAndReplacesTheCheapest() {
+		index.index(product("a", "Monitor A", 100, "monitores"));
+		index.index(product("b", "Monitor B", 300, "monitores"));
+		index.index(product("c", "Monitor C", 200, "monitores"));
+		assertEquals(List.of("b", "c"), productIds("monitor"));
+
+		index.index(product("d", "Monitor D", 400, "monitores"));
+		assertEquals(List.of("d", "b"), productIds("monitor"));
+
+		// A cheaper one does not make the cut
+		index.index(product("e", "Monitor E", 50, "monitores"));
+		assertEquals(List.of("d", "b"), productIds("monitor"));
+		assertEquals(List.of(400, 300), index.suggest("mon", 5).getProducts().stream()
+				.map(ProductSuggestion::getPrice).toList());
+	}
+
+	@Test
+	void categoriesRankByProductCount() {
+		index.index(product("1", "Silla Gamer", 100, "sillas"));
+		index.index(product("2", "Sillon", 100, "sofas"));
+		index.index(product("3", "Silla Oficina", 100, "sillas"));
+
+		assertEquals(List.of("sillas"), index.suggest("sil", 5).getCategories());
+		assertEquals(List.of("sofas"), index.suggest("so", 5).getCategories());
+		assertEquals(List.of("sillas", "sofas"), index.suggest("s", 5).getCategories());
+	}
+
+	@Test
+	void renameRebuildsTheTrie() {
+		index.index(product("p", "Mouse Inalambrico", 100, "perifericos"));
+		index.index(product("p", "Teclado Inalambrico", 100, "teclados"));
+
+		assertEquals(List.of(), productIds("mouse"));
+		assertEquals(List.of("p"), productIds("teclado"));
+		assertEquals(List.of("p"), productIds("inal"));
+		assertEquals(List.of(), index.suggest("perif", 5).getCategories());
+		assertEquals(List.of("teclados"), index.suggest("tec", 5).getCategories());
+	}
+
+	@Test
+	void repriceReordersTopK() {
+		index.index(product("a", "Auriculares A", 100, "audio"));
+		index.index(product("b", "Auriculares B", 200, "audio"));
+		index.index(product("a", "Auriculares A", 300, "audio"));
+
+		assertEquals(List.of("a", "b"), productIds("auri"));
+		assertEquals(300, index.suggest("auri", 1).getProducts().getFirst().getPrice());
+	}
+
+	private List<String> productIds(String query) {
+		Suggestions suggestions = index.suggest(query, 5);
+		return suggestions.getProducts().stream().map(ProductSuggestion::getId).toList();
+	}
+
+	private static Product product(String id, String name, int price, String category) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName(name);
+		product.setPrice(price);
+		product.setCategory(category);
+		return product;
+	}
+
+}
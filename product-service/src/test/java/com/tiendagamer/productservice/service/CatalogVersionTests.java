@@ -0,0 +1,94 @@
+package com.tiendagamer.productservice.service;
+
+import com.tiendagamer.productservice.InMemoryMongo;
+import com.tiendagamer.productservice.model.Product;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+class CatalogVersionTests {
+
+	private InMemoryMongo mongo;
+
+	@BeforeEach
+	void setUp() {
+		mongo = new InMemoryMongo();
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongo.close();
+	}
+
+	@Test
+	void unknownUntilTheFirstSync() {
+		CatalogVersion version = new CatalogVersion(mongo.template());
+		assertNull(version.etag());
+
+		version.advanceTo(version.fetch());
+		assertEquals("0", version.etag());
+	}
+
+	@Test
+	void localWriteDoesNotSkipOverAnotherInstancesWrite() {
+		CatalogVersion first = new CatalogVersion(mongo.template());
+		CatalogVersion second = new CatalogVersion(mongo.template());
+		first.advanceTo(first.fetch());
+		second.advanceTo(second.fetch());
+
+		first.onProductSaved(saved());
+		assertEquals("1", first.etag());
+
+		// The shared version also counts first's write, which second has not indexed
+		second.onProductSaved(saved());
+		assertEquals(2, second.fetch());
+		assertEquals("0", second.etag());
+
+		// What CatalogIndexLoader.sync does once catchUp has indexed that write
+		second.advanceTo(2);
+		assertEquals("2", second.etag());
+
+		first.onProductSaved(saved());
+		assertEquals("1", first.etag());
+	}
+
+	@Test
+	void failedBumpIsOwedUntilItLands() {
+		MongoTemplate mongoTemplate = spy(mongo.template());
+		CatalogVersion version = new CatalogVersion(mongoTemplate);
+		version.advanceTo(version.fetch());
+
+		doThrow(new DataAccessResourceFailureException("connection lost"))
+				.doCallRealMethod()
+				.when(mongoTemplate).findAndModify(any(Query.class), any(UpdateDefinition.class),
+						any(FindAndModifyOptions.class), eq(Document.class), anyString());
+
+		version.onProductSaved(saved());
+		assertNull(version.etag());
+
+		version.settle();
+		assertEquals(1, version.fetch());
+		assertEquals("1", version.etag());
+	}
+
+	private static ProductSavedEvent saved() {
+		Product product = new Product();
+		product.setId("p");
+		return ProductSavedEvent.of(product);
+	}
+
+}
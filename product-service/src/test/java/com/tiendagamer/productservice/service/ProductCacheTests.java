@@ -0,0 +1,85 @@
+package com.tiendagamer.productservice.service;
+
+import com.tiendagamer.productservice.model.Product;
+import com.tiendagamer.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductCacheTests {
+
+	private ProductRepository productRepository;
+	private ProductCache cache;
+
+	@BeforeEach
+	void setUp() {
+		productRepository = mock(ProductRepository.class);
+		cache = new ProductCache(productRepository, JsonMapper.builder().build(),
+				new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+	}
+
+	@Test
+	void missIsLoadedOnceAndMissingProductsAreNotCached() {
+		when(productRepository.findById("p")).thenReturn(Optional.of(product("p", "Mouse")));
+
+		assertEquals("Mouse", name(cache.get("p")));
+		assertEquals("Mouse", name(cache.get("p")));
+		verify(productRepository, times(1)).findById("p");
+
+		assertNull(cache.get("missing"));
+		assertNull(cache.get("missing"));
+		verify(productRepository, times(2)).findById("missing");
+	}
+
+	@Test
+	void writeDuringALoadIsNotOverwritten() {
+		// The write lands after the read but before the loaded copy is cached
+		when(productRepository.findById("p")).thenAnswer(invocation -> {
+			cache.onProductSaved(ProductSavedEvent.of(product("p", "Mouse v2")));
+			return Optional.of(product("p", "Mouse v1"));
+		});
+
+		assertEquals("Mouse v2", name(cache.get("p")));
+		assertEquals("Mouse v2", name(cache.get("p")));
+	}
+
+	@Test
+	void getAllLoadsOnlyTheMisses() {
+		cache.onProductSaved(ProductSavedEvent.of(product("a", "Teclado")));
+		when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product("b", "Monitor")));
+
+		Map<String, byte[]> found = cache.getAll(List.of("a", "b", "c"));
+
+		assertEquals(Set.of("a", "b"), found.keySet());
+		assertEquals("Monitor", name(found.get("b")));
+		verify(productRepository).findAllById(List.of("b", "c"));
+	}
+
+	private static Product product(String id, String name) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName(name);
+		return product;
+	}
+
+	private static String name(byte[] json) {
+		return JsonMapper.builder().build().readTree(new String(json, StandardCharsets.UTF_8)).get("name").asString();
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.tiendagamer.productservice.service;
+
+import com.tiendagamer.productservice.InMemoryMongo;
+import com.tiendagamer.productservice.dto.ImportError;
+import com.tiendagamer.productservice.dto.ImportReport;
+import com.tiendagamer.productservice.model.Product;
+import com.tiendagamer.productservice.service.ProductImportService.Format;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductImportServiceTests {
+
+	private InMemoryMongo mongo;
+	private MongoTemplate mongoTemplate;
+	private List<ProductSavedEvent> events;
+	private ProductImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		mongo = new InMemoryMongo();
+		mongoTemplate = mongo.template();
+		events = new ArrayList<>();
+		importService = new ProductImportService(mongoTemplate, JsonMapper.builder().build(),
+				Validation.buildDefaultValidatorFactory().getValidator(),
+				event -> events.add((ProductSavedEvent) event), 2, 100);
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongo.close();
+	}
+
+	@Test
+	void invalidItemsAreRejectedAndTheRestImported() throws IOException {
+		String feed = "[" + item("Mouse") + ","
+				+ "{\"description\":\"Sin nombre\",\"price\":-5,\"category\":\"perifericos\"},"
+				+ "{\"name\":\"Teclado\",\"description\":\"Mecanico\",\"price\":\"caro\",\"category\":\"perifericos\"},"
+				+ item("Monitor") + "," + item("Silla") + "]";
+
+		ImportReport report = importService.importProducts(reader(feed), Format.JSON_ARRAY);
+
+		assertEquals(3, report.getImported());
+		assertEquals(2, report.getRejected());
+		Map<Long, String> errors = errors(report);
+		assertEquals(List.of(2L, 3L), List.copyOf(errors.keySet()));
+		assertTrue(errors.get(2L).startsWith("name "), errors.get(2L));
+		assertTrue(errors.get(2L).contains("; price "), errors.get(2L));
+		assertTrue(errors.get(3L).startsWith("Invalid product: "), errors.get(3L));
+		assertEquals(List.of("Monitor", "Mouse", "Silla"), storedNames());
+	}
+
+	@Test
+	void ndjsonErrorsCarryTheirLineNumber() throws IOException {
+		String feed = item("Mouse") + "\n"
+				+ "\n"
+				+ "{\"name\": \"Teclado\"\n"
+				+ "{\"name\":\"Monitor\",\"description\":\"IPS\",\"price\":900}\n"
+				+ item("Silla") + "\n";
+
+		ImportReport report = importService.importProducts(reader(feed), Format.NDJSON);
+
+		assertEquals(2, report.getImported());
+		Map<Long, String> errors = errors(report);
+		assertEquals(List.of(3L, 4L), List.copyOf(errors.keySet()));
+		assertEquals("Malformed JSON", errors.get(3L));
+		assertTrue(errors.get(4L).startsWith("category "), errors.get(4L));
+		assertEquals(List.of("Mouse", "Silla"), storedNames());
+	}
+
+	@Test
+	void malformedJsonStopsAnArrayImport() throws IOException {
+		String feed = "[" + item("Mouse") + "," + item("Teclado") + "," + item("Monitor") + ",{\"name\": \"Silla\"";
+
+		ImportReport report = importService.importProducts(reader(feed), Format.JSON_ARRAY);
+
+		// The full batch and the partial one before the error are kept
+		assertEquals(3, report.getImported());
+		assertEquals(1, report.getRejected());
+		assertEquals(0, report.getErrors().getFirst().getItem());
+		assertTrue(report.getErrors().getFirst().getReason().startsWith("Malformed JSON, import stopped"));
+		assertEquals(List.of("Monitor", "Mouse", "Teclado"), storedNames());
+	}
+
+	@Test
+	void rejectsABodyThatIsNotAnArray() {
+		assertThrows(IllegalArgumentException.class,
+				() -> importService.importProducts(reader(item("Mouse")), Format.JSON_ARRAY));
+	}
+
+	@Test
+	void failedInsertsAreReportedAndTheRestOfTheirBatchGoesIn() throws IOException {
+		mongoTemplate.indexOps(Product.class).createIndex(new Index("name", Sort.Direction.ASC).unique());
+		importService.importProducts(reader(item("Mouse")), Format.NDJSON);
+		events.clear();
+
+		// Batches of two: [Teclado, Mouse] and [Mouse, Monitor]
+		String feed = "[" + item("Teclado") + "," + item("Mouse") + "," + item("Mouse") + "," + item("Monitor") + "]";
+		ImportReport report = importService.importProducts(reader(feed), Format.JSON_ARRAY);
+
+		assertEquals(2, report.getImported());
+		assertEquals(2, report.getRejected());
+		// A bulk error's index is its position in the batch, mapped back to the feed
+		assertEquals(List.of(2L, 3L), List.copyOf(errors(report).keySet()));
+		assertEquals(List.of(List.of("Teclado"), List.of("Monitor")), events.stream()
+				.map(event -> event.products().stream().map(Product::getName).toList())
+				.toList());
+		assertEquals(List.of("Monitor", "Mouse", "Teclado"), storedNames());
+	}
+
+	@Test
+	void reportedErrorsAreCappedButAllCounted() throws IOException {
+		importService = new ProductImportService(mongoTemplate, JsonMapper.builder().build(),
+				Validation.buildDefaultValidatorFactory().getValidator(), event -> { }, 2, 1);
+
+		ImportReport report = importService.importProducts(reader("{}\n{}\n{}\n"), Format.NDJSON);
+
+		assertEquals(3, report.getRejected());
+		assertEquals(1, report.getErrors().size());
+	}
+
+	@Test
+	void updatedAtIsTakenWhenTheBatchIsWritten() throws IOException {
+		List<Instant> readAt = new ArrayList<>();
+		// A feed that trickles in: the batch is only written once its second line arrives
+		BufferedReader feed = new BufferedReader(new StringReader(item("Mouse") + "\n" + item("Teclado") + "\n")) {
+			@Override
+			public String readLine() throws IOException {
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				String line = super.readLine();
+				readAt.add(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+				return line;
+			}
+		};
+
+		importService.importProducts(feed, Format.NDJSON);
+
+		Instant secondLine = readAt.get(1);
+		for (Product product : mongoTemplate.findAll(Product.class)) {
+			assertFalse(product.getUpdatedAt().isBefore(secondLine), product.getName() + " stamped before its write");
+		}
+	}
+
+	private List<String> storedNames() {
+		return mongoTemplate.findAll(Product.class).stream().map(Product::getName).sorted().toList();
+	}
+
+	private static Map<Long, String> errors(ImportReport report) {
+		return report.getErrors().stream().collect(Collectors.toMap(
+				ImportError::getItem, ImportError::getReason, (a, b) -> a + " | " + b, TreeMap::new));
+	}
+
+	private static BufferedReader reader(String body) {
+		return new BufferedReader(new StringReader(body));
+	}
+
+	private static String item(String name) {
+		return "{\"name\":\"" + name + "\",\"description\":\"Periferico\",\"price\":100,\"category\":\"perifericos\"}";
+	}
+
+}